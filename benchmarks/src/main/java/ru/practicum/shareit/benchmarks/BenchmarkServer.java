@@ -0,0 +1,27 @@
+package ru.practicum.shareit.benchmarks;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+
+import java.util.UUID;
+
+/**
+ * Boots the server application context without the web layer on a private in-memory H2 database,
+ * so every benchmark fork works with its own freshly migrated schema.
+ */
+@UtilityClass
+public class BenchmarkServer {
+    public ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driverClassName=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.enums.BookingStatusEnum;
+import ru.practicum.shareit.item.comment.dto.CommentDtoOut;
+import ru.practicum.shareit.item.dto.ItemDtoOut;
+import ru.practicum.shareit.item.dto.ItemDtoShort;
+import ru.practicum.shareit.user.dto.UserDtoShort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+    @Param({"10", "100"})
+    private int size;
+
+    @Param({"0", "5"})
+    private int commentsPerItem;
+
+    private ObjectMapper objectMapper;
+    private List<ItemDtoOut> items;
+    private List<BookingDtoOut> bookings;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime now = LocalDateTime.now();
+        UserDtoShort owner = new UserDtoShort(1L, "owner");
+        UserDtoShort booker = new UserDtoShort(2L, "booker");
+        items = new ArrayList<>(size);
+        bookings = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            ItemDtoOut item = new ItemDtoOut(id, "item " + id, "description of item " + id, true, owner);
+            item.setLastBooking(new BookingDtoShort(id, now.minusDays(2), now.minusDays(1),
+                    BookingStatusEnum.APPROVED, booker.getId()));
+            item.setNextBooking(new BookingDtoShort(id + 1, now.plusDays(1), now.plusDays(2),
+                    BookingStatusEnum.APPROVED, booker.getId()));
+            List<CommentDtoOut> comments = new ArrayList<>(commentsPerItem);
+            for (long c = 1; c <= commentsPerItem; c++) {
+                comments.add(new CommentDtoOut(c, "comment " + c, booker.getName(), now.minusDays(c)));
+            }
+            item.setComments(comments);
+            items.add(item);
+            bookings.add(new BookingDtoOut(id, now.plusDays(id), now.plusDays(id + 1),
+                    new ItemDtoShort(id, item.getName()), booker, BookingStatusEnum.APPROVED));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeItems() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public byte[] serializeBookings() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+}
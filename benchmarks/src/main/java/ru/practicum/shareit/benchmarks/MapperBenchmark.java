@@ -0,0 +1,76 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.enums.BookingPhaseEnum;
+import ru.practicum.shareit.enums.BookingStatusEnum;
+import ru.practicum.shareit.item.dto.ItemDtoOut;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+    @Param({"10", "1000"})
+    private int size;
+
+    private List<Item> items;
+    private List<Booking> bookings;
+
+    @Setup
+    public void setUp() {
+        User owner = new User(1L, "owner", "owner@mail.ru");
+        User booker = new User(2L, "booker", "booker@mail.ru");
+        ItemRequest request = new ItemRequest(1L, "request", booker, LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        items = new ArrayList<>(size);
+        bookings = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            Item item = new Item(id, "item " + id, "description of item " + id, true, owner, request, 0L);
+            items.add(item);
+            bookings.add(new Booking(id, now.plusDays(id), now.plusDays(id + 1), item, booker, owner.getId(),
+                    BookingStatusEnum.APPROVED, BookingPhaseEnum.FUTURE, 0L));
+        }
+    }
+
+    @Benchmark
+    public List<ItemDtoOut> itemToDto() {
+        List<ItemDtoOut> result = new ArrayList<>(items.size());
+        for (Item item : items) {
+            result.add(ItemMapper.toDto(item));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<BookingDtoOut> bookingToDtoOut() {
+        List<BookingDtoOut> result = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            result.add(BookingMapper.toBookingDtoOut(booking));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.benchmarks;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.enums.BookingPhaseEnum;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills the schema with one owner holding {@code items} items. Every item answers one of
+ * {@code requests} requests and carries {@code bookingsPerItem} approved bookings, half in the past
+ * and half in the future, and {@code commentsPerItem} comments.
+ */
+@RequiredArgsConstructor
+public class SeedData {
+    public static final long OWNER_ID = 1L;
+    public static final long BOOKER_ID = 2L;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void seed(int items, int bookingsPerItem, int commentsPerItem, int requests) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", List.of(
+                new Object[]{OWNER_ID, "owner", "owner@mail.ru"},
+                new Object[]{BOOKER_ID, "booker", "booker@mail.ru"}));
+
+        List<Object[]> requestRows = new ArrayList<>();
+        for (long id = 1; id <= requests; id++) {
+            requestRows.add(new Object[]{id, "request " + id, BOOKER_ID, Timestamp.valueOf(now.minusHours(id))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO requests (id, description, requestor_id, created) VALUES (?, ?, ?, ?)",
+                requestRows);
+
+        List<Object[]> itemRows = new ArrayList<>();
+        List<Object[]> bookingRows = new ArrayList<>();
+        List<Object[]> commentRows = new ArrayList<>();
+        long bookingId = 1;
+        long commentId = 1;
+        for (long itemId = 1; itemId <= items; itemId++) {
+            Long requestId = requests == 0 ? null : (itemId - 1) % requests + 1;
+            itemRows.add(new Object[]{itemId, "item " + itemId, "description of item " + itemId, true, OWNER_ID,
+                    requestId});
+            for (int i = 0; i < bookingsPerItem; i++) {
+                LocalDateTime start = now.plusDays(2L * (i - bookingsPerItem / 2));
+                bookingRows.add(new Object[]{bookingId++, Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(1)),
+                        itemId, BOOKER_ID, OWNER_ID, "APPROVED", BookingPhaseEnum.at(start, start.plusDays(1), now).name()});
+            }
+            for (int i = 0; i < commentsPerItem; i++) {
+                commentRows.add(new Object[]{commentId++, "comment " + i, itemId, BOOKER_ID,
+                        Timestamp.valueOf(now.minusDays(i))});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO items (id, name, description, available, owner_id, request_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", itemRows);
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, owner_id, status, phase) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", bookingRows);
+        jdbcTemplate.batchUpdate("INSERT INTO comments (id, text, item_id, author_id, created) VALUES (?, ?, ?, ?, ?)",
+                commentRows);
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.service.LastNextBookingIndex;
+import ru.practicum.shareit.item.dto.ItemDtoOut;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.request.dto.ItemRequestDtoOut;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the listing paths that fan out into several queries per page: items of an owner with
+ * their last/next bookings and comments, and the request feed with the items answering each request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ServiceBenchmark {
+    @Param({"100", "10000"})
+    private int items;
+
+    @Param({"10"})
+    private int bookingsPerItem;
+
+    @Param({"5"})
+    private int commentsPerItem;
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private ItemRequestService requestService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkServer.start();
+        new SeedData(context.getBean(JdbcTemplate.class))
+                .seed(items, bookingsPerItem, commentsPerItem, Math.max(1, items / 2));
+        // bookings were inserted over JDBC after the index warmed up on an empty schema
+        context.getBean(LastNextBookingIndex.class).warmUp();
+        itemService = context.getBean(ItemService.class);
+        requestService = context.getBean(ItemRequestService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDtoOut> itemsByOwner() {
+        return itemService.getItemsByOwner(0, pageSize, SeedData.OWNER_ID);
+    }
+
+    @Benchmark
+    public List<ItemDtoOut> itemsByOwnerLastPage() {
+        return itemService.getItemsByOwner(items - pageSize, pageSize, SeedData.OWNER_ID);
+    }
+
+    @Benchmark
+    public List<ItemRequestDtoOut> requestFeed() {
+        return requestService.getAllRequests(0, pageSize, SeedData.OWNER_ID);
+    }
+}
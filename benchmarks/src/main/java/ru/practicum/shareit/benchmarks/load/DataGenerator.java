@@ -0,0 +1,258 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import ru.practicum.shareit.enums.BookingPhaseEnum;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Fills a ShareIt database with skewed synthetic data. Item ownership follows a Zipf distribution
+ * over owners, so the top owners hold thousands of items, and bookings follow a Zipf distribution
+ * over items, so a few items are booked back to back while most are rarely touched. Ids are dense
+ * (1..n), which lets the load driver address entities without reading them back.
+ *
+ * <pre>
+ * java -cp benchmarks.jar ru.practicum.shareit.benchmarks.load.DataGenerator \
+ *     --url=jdbc:h2:file:./target/shareit-load;AUTO_SERVER=TRUE --items=100000 --bookings=1000000
+ * </pre>
+ */
+@Slf4j
+public class DataGenerator {
+    static final String[] WORDS = {"дрель", "пила", "палатка", "велосипед", "самокат", "лестница",
+            "шуруповерт", "ноутбук", "проектор", "байдарка", "перфоратор", "спальник"};
+
+    private static final int BATCH = 1000;
+    private static final int BOOKING_ID_BLOCK = 50;
+
+    private final int users;
+    private final int owners;
+    private final int items;
+    private final int requests;
+    private final int bookings;
+    private final int comments;
+    private final double skew;
+    private final SplittableRandom random;
+    private final LocalDateTime now = LocalDateTime.now();
+
+    DataGenerator(CommandLine cli) {
+        users = cli.getInt("users", 10_000);
+        owners = Math.min(cli.getInt("owners", 500), users);
+        items = cli.getInt("items", 100_000);
+        requests = cli.getInt("requests", 20_000);
+        bookings = cli.getInt("bookings", 1_000_000);
+        comments = cli.getInt("comments", 200_000);
+        skew = cli.getDouble("skew", 1.1);
+        random = new SplittableRandom(cli.getLong("seed", 42));
+    }
+
+    public static void main(String[] args) throws SQLException {
+        CommandLine cli = new CommandLine(args);
+        String url = cli.get("url", "jdbc:h2:file:./target/shareit-load;AUTO_SERVER=TRUE");
+        String user = cli.get("user", "sa");
+        String password = cli.get("password", "");
+
+        String vendor = url.startsWith("jdbc:postgresql:") ? "postgresql" : "h2";
+        Flyway.configure()
+                .dataSource(url, user, password)
+                .locations("classpath:db/common", "classpath:db/vendor/" + vendor)
+                .load()
+                .migrate();
+
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            connection.setAutoCommit(false);
+            DataGenerator generator = new DataGenerator(cli);
+            generator.generate(connection);
+            resetIdentities(connection, vendor);
+            connection.commit();
+        }
+    }
+
+    void generate(Connection connection) throws SQLException {
+        long started = System.currentTimeMillis();
+        insertUsers(connection);
+        insertRequests(connection);
+        int[] ownerOf = insertItems(connection);
+        long[] pastBookings = insertBookings(connection, ownerOf);
+        insertComments(connection, pastBookings);
+        log.info("Сгенерировано за {} мс: пользователей {}, вещей {}, запросов {}, бронирований {}, отзывов {}",
+                System.currentTimeMillis() - started, users, items, requests, bookings, comments);
+    }
+
+    private void insertUsers(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO users (id, name, email) VALUES (?, ?, ?)")) {
+            for (int id = 1; id <= users; id++) {
+                statement.setLong(1, id);
+                statement.setString(2, "user " + id);
+                statement.setString(3, "user" + id + "@load.shareit");
+                addBatch(statement, id);
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private void insertRequests(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO requests (id, description, requestor_id, created) VALUES (?, ?, ?, ?)")) {
+            for (int id = 1; id <= requests; id++) {
+                statement.setLong(1, id);
+                statement.setString(2, "Нужна " + WORDS[random.nextInt(WORDS.length)]);
+                statement.setLong(3, 1 + random.nextInt(users));
+                statement.setTimestamp(4, Timestamp.valueOf(now.minusMinutes(random.nextInt(525_600))));
+                addBatch(statement, id);
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private int[] insertItems(Connection connection) throws SQLException {
+        ZipfSampler ownerSampler = new ZipfSampler(owners, skew);
+        int[] ownerOf = new int[items + 1];
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO items (id, name, description, available, owner_id, request_id) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int id = 1; id <= items; id++) {
+                String word = WORDS[random.nextInt(WORDS.length)];
+                ownerOf[id] = ownerSampler.sample(random);
+                statement.setLong(1, id);
+                statement.setString(2, word + " " + id);
+                statement.setString(3, "Отличная " + word + ", модель " + Integer.toHexString(id));
+                statement.setBoolean(4, random.nextInt(10) != 0);
+                statement.setLong(5, ownerOf[id]);
+                if (requests > 0 && random.nextInt(10) == 0) {
+                    statement.setLong(6, 1 + random.nextInt(requests));
+                } else {
+                    statement.setNull(6, Types.BIGINT);
+                }
+                addBatch(statement, id);
+            }
+            statement.executeBatch();
+        }
+        return ownerOf;
+    }
+
+    /**
+     * Bookings of one item never overlap: each item keeps a moving "free from" point, starting a year
+     * ago, and every new booking is placed after it. Returns (item, booker) pairs of finished bookings
+     * packed into longs, used as authors of comments.
+     */
+    private long[] insertBookings(Connection connection, int[] ownerOf) throws SQLException {
+        ZipfSampler itemSampler = new ZipfSampler(items, skew);
+        LocalDateTime[] freeFrom = new LocalDateTime[items + 1];
+        long[] past = new long[bookings];
+        int pastCount = 0;
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, owner_id, status, phase) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int id = 1; id <= bookings; id++) {
+                int itemId = itemSampler.sample(random);
+                int bookerId = 1 + random.nextInt(users);
+                if (bookerId == ownerOf[itemId]) {
+                    bookerId = bookerId % users + 1;
+                }
+                LocalDateTime start = (freeFrom[itemId] == null ? now.minusDays(365) : freeFrom[itemId])
+                        .plusHours(random.nextInt(72));
+                LocalDateTime end = start.plusHours(1 + random.nextInt(24 * 7));
+                freeFrom[itemId] = end;
+
+                String status = status(start, end);
+                if (end.isBefore(now) && "APPROVED".equals(status)) {
+                    past[pastCount++] = ((long) itemId << 32) | bookerId;
+                }
+                statement.setLong(1, id);
+                statement.setTimestamp(2, Timestamp.valueOf(start));
+                statement.setTimestamp(3, Timestamp.valueOf(end));
+                statement.setLong(4, itemId);
+                statement.setLong(5, bookerId);
+                statement.setLong(6, ownerOf[itemId]);
+                statement.setString(7, status);
+                statement.setString(8, BookingPhaseEnum.at(start, end, now).name());
+                addBatch(statement, id);
+            }
+            statement.executeBatch();
+        }
+        return Arrays.copyOf(past, pastCount);
+    }
+
+    private void insertComments(Connection connection, long[] pastBookings) throws SQLException {
+        if (pastBookings.length == 0) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO comments (id, text, item_id, author_id, created) VALUES (?, ?, ?, ?, ?)")) {
+            for (int id = 1; id <= comments; id++) {
+                long booking = pastBookings[random.nextInt(pastBookings.length)];
+                statement.setLong(1, id);
+                statement.setString(2, "Отзыв " + id);
+                statement.setLong(3, booking >>> 32);
+                statement.setLong(4, booking & 0xFFFFFFFFL);
+                statement.setTimestamp(5, Timestamp.valueOf(now.minusMinutes(random.nextInt(525_600))));
+                addBatch(statement, id);
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private String status(LocalDateTime start, LocalDateTime end) {
+        int roll = random.nextInt(100);
+        if (end.isBefore(now)) {
+            return roll < 85 ? "APPROVED" : roll < 95 ? "REJECTED" : "CANCELED";
+        }
+        if (start.isAfter(now)) {
+            return roll < 60 ? "APPROVED" : "WAITING";
+        }
+        return "APPROVED";
+    }
+
+    private static void addBatch(PreparedStatement statement, int row) throws SQLException {
+        statement.addBatch();
+        if (row % BATCH == 0) {
+            statement.executeBatch();
+        }
+    }
+
+    /**
+     * Rows were written with explicit ids, so identity generators are moved past them before the
+     * server starts inserting. Bookings take ids from a pooled sequence whose value closes the
+     * block being handed out, so it is moved a whole block past the highest id.
+     */
+    private static void resetIdentities(Connection connection, String vendor) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String table : List.of("users", "requests", "items", "bookings", "comments")) {
+                if ("postgresql".equals(vendor)) {
+                    statement.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), " +
+                            "COALESCE((SELECT MAX(id) FROM " + table + "), 0) + 1, false)");
+                } else {
+                    long next;
+                    try (ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+                        resultSet.next();
+                        next = resultSet.getLong(1);
+                    }
+                    statement.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+                }
+            }
+            long next;
+            try (ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + " + BOOKING_ID_BLOCK +
+                    " FROM bookings")) {
+                resultSet.next();
+                next = resultSet.getLong(1);
+            }
+            if ("postgresql".equals(vendor)) {
+                statement.execute("SELECT setval('bookings_seq', " + next + ", false)");
+            } else {
+                statement.execute("ALTER SEQUENCE bookings_seq RESTART WITH " + next);
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import java.util.Arrays;
+
+/**
+ * Keeps every latency sample of one operation so percentiles are exact rather than bucketed.
+ */
+class LatencyRecorder {
+    private long[] samples = new long[1024];
+    private int count;
+    private long clientErrors;
+    private long serverErrors;
+
+    synchronized void record(long nanos, int status) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+        if (status >= 500 || status < 0) {
+            serverErrors++;
+        } else if (status >= 400) {
+            clientErrors++;
+        }
+    }
+
+    synchronized String report(String name, double seconds) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return String.format("%-16s %9d %9.1f %7d %7d %9.2f %9.2f %9.2f %9.2f %9.2f", name, count, count / seconds,
+                clientErrors, serverErrors, millis(sorted, 0.50), millis(sorted, 0.90), millis(sorted, 0.99),
+                millis(sorted, 0.999), count == 0 ? 0 : sorted[count - 1] / 1e6);
+    }
+
+    static String header() {
+        return String.format("%-16s %9s %9s %7s %7s %9s %9s %9s %9s %9s", "operation", "requests", "req/s",
+                "4xx", "5xx", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+    }
+
+    private static double millis(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+}
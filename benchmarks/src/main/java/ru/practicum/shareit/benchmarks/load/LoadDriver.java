@@ -0,0 +1,170 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a weighted mix of ShareIt calls against the gateway from a fixed number of concurrent
+ * virtual-thread workers and prints per-operation throughput and latency percentiles. Item and user
+ * ids are drawn with the same Zipf skew as {@link DataGenerator}, so the hot items and big owners
+ * it produced are hot here too.
+ *
+ * <pre>
+ * java -cp benchmarks.jar ru.practicum.shareit.benchmarks.load.LoadDriver \
+ *     --url=http://localhost:8080 --duration=60 --concurrency=64 --mix=item:40,search:20,create:2
+ * </pre>
+ */
+public class LoadDriver {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    enum Operation {
+        ITEM, OWNER_ITEMS, SEARCH, BOOKINGS, OWNER_BOOKINGS, REQUESTS, CREATE
+    }
+
+    private final String baseUrl;
+    private final int users;
+    private final int items;
+    private final ZipfSampler itemSampler;
+    private final ZipfSampler ownerSampler;
+    private final List<Operation> wheel = new ArrayList<>();
+    private final Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+    private final HttpClient client;
+
+    LoadDriver(CommandLine cli) {
+        baseUrl = cli.get("url", "http://localhost:8080");
+        users = cli.getInt("users", 10_000);
+        items = cli.getInt("items", 100_000);
+        double skew = cli.getDouble("skew", 1.1);
+        itemSampler = new ZipfSampler(items, skew);
+        ownerSampler = new ZipfSampler(Math.min(cli.getInt("owners", 500), users), skew);
+        for (String entry : cli.get("mix", "item:35,owner:10,search:20,bookings:15,ownerbookings:10,requests:8,create:2")
+                .split(",")) {
+            String[] parts = entry.split(":");
+            Operation operation = operation(parts[0].trim());
+            for (int i = 0; i < Integer.parseInt(parts[1].trim()); i++) {
+                wheel.add(operation);
+            }
+        }
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new LatencyRecorder());
+        }
+        client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public static void main(String[] args) {
+        CommandLine cli = new CommandLine(args);
+        new LoadDriver(cli).run(cli.getInt("concurrency", 64), cli.getInt("duration", 60));
+    }
+
+    void run(int concurrency, int durationSeconds) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+        long started = System.nanoTime();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int worker = 0; worker < concurrency; worker++) {
+                SplittableRandom random = new SplittableRandom(worker);
+                workers.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        call(wheel.get(random.nextInt(wheel.size())), random);
+                    }
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.println(LatencyRecorder.header());
+        recorders.forEach((operation, recorder) -> System.out.println(recorder.report(operation.name(), seconds)));
+    }
+
+    private void call(Operation operation, SplittableRandom random) {
+        HttpRequest request = request(operation, random);
+        long started = System.nanoTime();
+        int status;
+        try {
+            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            status = -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        recorders.get(operation).record(System.nanoTime() - started, status);
+    }
+
+    private HttpRequest request(Operation operation, SplittableRandom random) {
+        long user = 1 + random.nextInt(users);
+        long owner = ownerSampler.sample(random);
+        switch (operation) {
+            case ITEM:
+                return get("/items/" + itemSampler.sample(random), user);
+            case OWNER_ITEMS:
+                return get("/items?from=0&size=20", owner);
+            case SEARCH:
+                String word = DataGenerator.WORDS[random.nextInt(DataGenerator.WORDS.length)];
+                String text = random.nextBoolean() ? word : word.substring(0, 3);
+                return get("/items/search?from=0&size=20&text=" + URLEncoder.encode(text, StandardCharsets.UTF_8),
+                        user);
+            case BOOKINGS:
+                return get("/bookings?state=ALL&from=0&size=20", user);
+            case OWNER_BOOKINGS:
+                return get("/bookings/owner?state=ALL&from=0&size=20", owner);
+            case REQUESTS:
+                return get("/requests/all?from=0&size=20", user);
+            case CREATE:
+                LocalDateTime start = LocalDateTime.now().plusDays(1 + random.nextInt(365)).withNano(0);
+                String body = String.format("{\"itemId\":%d,\"start\":\"%s\",\"end\":\"%s\"}",
+                        itemSampler.sample(random), start, start.plusHours(1 + random.nextInt(48)));
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/bookings"))
+                        .header(USER_HEADER, String.valueOf(user))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+            default:
+                throw new IllegalStateException("Неизвестная операция: " + operation);
+        }
+    }
+
+    private HttpRequest get(String path, long userId) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header(USER_HEADER, String.valueOf(userId))
+                .GET()
+                .build();
+    }
+
+    private static Operation operation(String name) {
+        switch (name) {
+            case "item":
+                return Operation.ITEM;
+            case "owner":
+                return Operation.OWNER_ITEMS;
+            case "search":
+                return Operation.SEARCH;
+            case "bookings":
+                return Operation.BOOKINGS;
+            case "ownerbookings":
+                return Operation.OWNER_BOOKINGS;
+            case "requests":
+                return Operation.REQUESTS;
+            case "create":
+                return Operation.CREATE;
+            default:
+                throw new IllegalArgumentException("Неизвестная операция в --mix: " + name);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Samples ranks 1..n with probability proportional to 1 / rank^exponent, so rank 1 is the most
+ * popular. The cumulative distribution is precomputed once and each sample is a binary search.
+ */
+public class ZipfSampler {
+    private final double[] cumulative;
+
+    public ZipfSampler(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Число элементов должно быть положительным: " + n);
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            sum += 1 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    public int sample(RandomGenerator random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min((index >= 0 ? index : -index - 1) + 1, cumulative.length);
+    }
+}
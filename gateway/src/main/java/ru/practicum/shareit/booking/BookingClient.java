@@ -7,12 +7,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.exception.WrongDatesException;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 
@@ -22,23 +25,26 @@ public class BookingClient extends BaseClient {
 
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                        .requestFactory(() -> requestFactory)
                         .build()
         );
     }
 
     public ResponseEntity<Object> saveBooking(BookingDto bookingDto, long userId) {
-        if (!bookingDto.getEnd().isAfter(bookingDto.getStart()) ||
-                bookingDto.getStart().isBefore(LocalDateTime.now())) {
-            throw new WrongDatesException("Дата начала бронирования должна быть раньше даты возврата");
-        }
+        checkDates(bookingDto);
         return post("", userId, bookingDto);
     }
 
+    public ResponseEntity<Object> saveBookings(List<BookingDto> bookingDtos, long userId) {
+        bookingDtos.forEach(BookingClient::checkDates);
+        return post("/batch", userId, bookingDtos);
+    }
+
     public ResponseEntity<Object> approve(long bookingId, Boolean isApproved, long userId) {
         Map<String, Object> parameters = Map.of("approved", isApproved);
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
@@ -48,21 +54,46 @@ public class BookingClient extends BaseClient {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllByBooker(Integer from, Integer size, BookingState state, long userId) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public ResponseEntity<Object> getAllByBooker(Integer from, Integer size, BookingState state, String cursor,
+                                                 long userId) {
+        return getPage("", from, size, state, cursor, userId);
+    }
+
+    public ResponseEntity<Object> getAllByOwner(Integer from, Integer size, BookingState state, String cursor,
+                                                long userId) {
+        return getPage("/owner", from, size, state, cursor, userId);
     }
 
-    public ResponseEntity<Object> getAllByOwner(Integer from, Integer size, BookingState state, long userId) {
+    public ResponseEntity<StreamingResponseBody> exportByBooker(long userId) throws IOException {
+        return stream("/export", userId, Map.of());
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportByOwner(long userId) throws IOException {
+        return stream("/owner/export", userId, Map.of());
+    }
+
+    private static void checkDates(BookingDto bookingDto) {
+        if (!bookingDto.getEnd().isAfter(bookingDto.getStart()) ||
+                bookingDto.getStart().isBefore(LocalDateTime.now())) {
+            throw new WrongDatesException("Дата начала бронирования должна быть раньше даты возврата");
+        }
+    }
+
+    private ResponseEntity<Object> getPage(String path, Integer from, Integer size, BookingState state, String cursor,
+                                           long userId) {
+        if (cursor == null) {
+            Map<String, Object> parameters = Map.of(
+                    "state", state.name(),
+                    "from", from,
+                    "size", size
+            );
+            return get(path + "?state={state}&from={from}&size={size}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
-                "from", from,
-                "size", size
+                "size", size,
+                "cursor", cursor
         );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        return get(path + "?state={state}&size={size}&cursor={cursor}", userId, parameters);
     }
 }
@@ -1,7 +1,11 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import jakarta.validation.groups.ConvertGroup;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import ru.practicum.shareit.booking.dto.BookingDto;
@@ -11,6 +15,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.util.List;
 
 
 @Controller
@@ -19,6 +27,8 @@ import org.springframework.web.bind.annotation.*;
 @Slf4j
 @Validated
 public class BookingController {
+    private static final int MAX_BATCH_SIZE = 500;
+
     private final BookingClient bookingClient;
 
     @PostMapping
@@ -28,6 +38,15 @@ public class BookingController {
         return bookingClient.saveBooking(bookingDto, userId);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> saveNewBookings(@RequestBody @Size(min = 1, max = MAX_BATCH_SIZE)
+                                                  List<@NotNull @Valid @ConvertGroup(to = Create.class)
+                                                          BookingDto> bookingDtos,
+                                                  @RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("POST / bookings / batch of {}", bookingDtos.size());
+        return bookingClient.saveBookings(bookingDtos, userId);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> approve(@PathVariable long bookingId,
                                           @RequestParam(name = "approved") Boolean isApproved,
@@ -47,21 +66,37 @@ public class BookingController {
     public ResponseEntity<Object> getAllByBooker(@RequestParam(defaultValue = "1") @PositiveOrZero Integer from,
                                                  @RequestParam(defaultValue = "10") @Positive Integer size,
                                                  @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+                                                 @RequestParam(required = false) String cursor,
                                                  @RequestHeader("X-Sharer-User-Id") long bookerId) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
         log.info("GET / ByBooker {}", bookerId);
-        return bookingClient.getAllByBooker(from, size, state, bookerId);
+        return bookingClient.getAllByBooker(from, size, state, cursor, bookerId);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<Object> getAllByOwner(@RequestParam(defaultValue = "1") @PositiveOrZero Integer from,
                                                 @RequestParam(defaultValue = "10") @Positive Integer size,
                                                 @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+                                                @RequestParam(required = false) String cursor,
                                                 @RequestHeader("X-Sharer-User-Id") long ownerId) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
         log.info("GET / ByOwner / {}", ownerId);
-        return bookingClient.getAllByOwner(from, size, state, ownerId);
+        return bookingClient.getAllByOwner(from, size, state, cursor, ownerId);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportByBooker(@RequestHeader("X-Sharer-User-Id") long bookerId)
+            throws IOException {
+        log.info("GET / export / ByBooker {}", bookerId);
+        return bookingClient.exportByBooker(bookerId);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportByOwner(@RequestHeader("X-Sharer-User-Id") long ownerId)
+            throws IOException {
+        log.info("GET / export / ByOwner {}", ownerId);
+        return bookingClient.exportByOwner(ownerId);
     }
 }
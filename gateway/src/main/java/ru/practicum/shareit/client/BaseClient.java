@@ -1,16 +1,36 @@
 package ru.practicum.shareit.client;
 
 import jakarta.annotation.Nullable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
-
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 public class BaseClient {
+    private static final List<String> HOP_BY_HOP_HEADERS = List.of(HttpHeaders.CONNECTION, "Keep-Alive",
+            HttpHeaders.PROXY_AUTHENTICATE, HttpHeaders.PROXY_AUTHORIZATION, HttpHeaders.TE, HttpHeaders.TRAILER,
+            HttpHeaders.TRANSFER_ENCODING, HttpHeaders.UPGRADE, HttpHeaders.CONTENT_LENGTH);
+    static final String STREAM_CLEANUP_KEY = BaseClient.class.getName() + ".stream";
+
     protected final RestTemplate rest;
 
+    @Value("${shareit-server.passthrough.enabled:true}")
+    private boolean passthrough;
+
     public BaseClient(RestTemplate rest) {
         this.rest = rest;
     }
@@ -75,8 +95,59 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    /**
+     * Relays a GET whose body is copied to the caller as it arrives instead of being read into memory.
+     * The server's status and headers are known before the body starts, so errors still reach the
+     * caller with their own status; on success the connection stays open until the body is written.
+     * The body is written asynchronously and may never start if the request times out or the caller
+     * disconnects first, so the upstream response is also closed when the async request completes.
+     */
+    protected ResponseEntity<StreamingResponseBody> stream(String path, long userId,
+                                                           Map<String, Object> parameters) throws IOException {
+        ClientHttpRequest request = rest.getRequestFactory()
+                .createRequest(rest.getUriTemplateHandler().expand(path, parameters), HttpMethod.GET);
+        request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+        ClientHttpResponse response = request.execute();
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(response.getStatusCode())
+                .headers(endToEndHeaders(response.getHeaders()));
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            try (response) {
+                byte[] error = StreamUtils.copyToByteArray(response.getBody());
+                return builder.body(out -> out.write(error));
+            }
+        }
+        closeOnAsyncCompletion(response);
+        return builder.body(out -> {
+            try (response) {
+                StreamUtils.copy(response.getBody(), out);
+            }
+        });
+    }
+
+    private static void closeOnAsyncCompletion(ClientHttpResponse response) {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            WebAsyncUtils.getAsyncManager(attributes.getRequest()).registerCallableInterceptor(STREAM_CLEANUP_KEY,
+                    new CallableProcessingInterceptor() {
+                        @Override
+                        public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+                            response.close();
+                        }
+                    });
+        }
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        HttpHeaders headers = defaultHeaders(userId);
+        if (method == HttpMethod.GET) {
+            String ifNoneMatch = incomingIfNoneMatch();
+            if (ifNoneMatch != null) {
+                headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+            }
+        }
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
+        if (passthrough) {
+            return exchangeBytes(method, path, parameters, requestEntity);
+        }
 
         ResponseEntity<Object> shareitServerResponse;
         try {
@@ -91,6 +162,53 @@ public class BaseClient {
         return prepareGatewayResponse(shareitServerResponse);
     }
 
+    /**
+     * Relays the server's status, end-to-end headers and raw body bytes without parsing the JSON into
+     * an object graph and serializing it again.
+     */
+    private <T> ResponseEntity<Object> exchangeBytes(HttpMethod method, String path,
+                                                     @Nullable Map<String, Object> parameters,
+                                                     HttpEntity<T> requestEntity) {
+        ResponseEntity<byte[]> shareitServerResponse;
+        try {
+            if (parameters != null) {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
+            } else {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
+            }
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getStatusCode())
+                    .headers(endToEndHeaders(e.getResponseHeaders()))
+                    .body(e.getResponseBodyAsByteArray());
+        }
+        return ResponseEntity.status(shareitServerResponse.getStatusCode())
+                .headers(endToEndHeaders(shareitServerResponse.getHeaders()))
+                .body(shareitServerResponse.getBody());
+    }
+
+    private static HttpHeaders endToEndHeaders(@Nullable HttpHeaders source) {
+        HttpHeaders headers = new HttpHeaders();
+        if (source != null) {
+            headers.putAll(source);
+            HOP_BY_HOP_HEADERS.forEach(headers::remove);
+        }
+        return headers;
+    }
+
+    /**
+     * If-None-Match of the request the gateway is currently serving, forwarded so that the server can
+     * answer 304 instead of sending an unchanged body again. A 200 served from the response cache or
+     * shared by a coalesced call keeps the server's ETag, and Spring MVC turns it into a 304 when it
+     * matches, so the gateway never buffers or hashes a body itself.
+     */
+    @Nullable
+    static String incomingIfNoneMatch() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            return attributes.getRequest().getHeader(HttpHeaders.IF_NONE_MATCH);
+        }
+        return null;
+    }
+
     private HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -106,7 +224,8 @@ public class BaseClient {
             return response;
         }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode())
+                .eTag(response.getHeaders().getETag());
 
         if (response.hasBody()) {
             return responseBuilder.body(response.getBody());
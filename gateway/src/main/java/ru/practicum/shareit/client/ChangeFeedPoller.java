@@ -0,0 +1,60 @@
+package ru.practicum.shareit.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Follows the server's change log and invalidates the cached responses whose tags changed.
+ * Entries can therefore stay stale for at most one poll interval after a change made through
+ * another gateway; changes made through this one are invalidated by the clients right away.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit-server.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class ChangeFeedPoller {
+    private final RestTemplate rest;
+    private final ResponseCache responseCache;
+    private String epoch = "";
+    private long version;
+
+    public ChangeFeedPoller(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                            ClientHttpRequestFactory requestFactory, ResponseCache responseCache) {
+        this.rest = builder
+                .rootUri(serverUrl)
+                .requestFactory(() -> requestFactory)
+                .build();
+        this.responseCache = responseCache;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit-server.cache.poll-interval:1s}")
+    public void poll() {
+        ChangesDto changes;
+        try {
+            changes = rest.getForObject("/internal/changes?epoch={epoch}&since={since}", ChangesDto.class,
+                    epoch, version);
+        } catch (RestClientException e) {
+            log.warn("Не удалось получить изменения с сервера, кэш очищен: {}", e.getMessage());
+            responseCache.invalidateAll();
+            epoch = "";
+            return;
+        }
+        if (changes == null) {
+            return;
+        }
+        if (changes.isReset()) {
+            log.info("Журнал изменений сервера начат заново, кэш очищен");
+            responseCache.invalidateAll();
+        } else if (!changes.getTags().isEmpty()) {
+            responseCache.invalidate(changes.getTags().toArray(String[]::new));
+        }
+        epoch = changes.getEpoch();
+        version = changes.getVersion();
+    }
+}
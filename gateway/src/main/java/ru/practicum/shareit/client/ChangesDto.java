@@ -0,0 +1,15 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+public class ChangesDto {
+    private String epoch;
+    private long version;
+    private boolean reset;
+    private Set<String> tags;
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * Request factory shared by all clients. With spring.threads.virtual.enabled=true Tomcat serves
+ * requests on virtual threads and outbound calls go through the JDK client, which parks the virtual
+ * thread instead of holding a carrier while the server answers. Otherwise every client leases
+ * connections from one pooled Apache connection manager whose usage is published as metrics.
+ */
+@Configuration
+public class ClientConfig {
+    @Value("${shareit-server.timeout.connect:2s}")
+    private Duration connectTimeout;
+
+    @Value("${shareit-server.timeout.read:10s}")
+    private Duration readTimeout;
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public ClientHttpRequestFactory virtualThreadRequestFactory() {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(connectTimeout)
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        return requestFactory;
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public PoolingHttpClientConnectionManager serverConnectionManager(
+            @Value("${shareit-server.pool.max-total:200}") int maxTotal,
+            @Value("${shareit-server.pool.max-per-route:200}") int maxPerRoute,
+            @Value("${shareit-server.pool.validate-after-inactivity:2s}") Duration validateAfterInactivity) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setValidateAfterInactivity(TimeValue.of(validateAfterInactivity))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public CloseableHttpClient serverHttpClient(
+            PoolingHttpClientConnectionManager connectionManager,
+            @Value("${shareit-server.pool.keep-alive:30s}") Duration keepAlive,
+            @Value("${shareit-server.pool.idle-eviction:30s}") Duration idleEviction,
+            @Value("${shareit-server.pool.lease-timeout:1s}") Duration leaseTimeout) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy((response, context) -> TimeValue.of(keepAlive))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleEviction))
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(leaseTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ClientHttpRequestFactory platformThreadRequestFactory(CloseableHttpClient serverHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(serverHttpClient);
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public MeterBinder serverConnectionPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "shareit-server");
+    }
+}
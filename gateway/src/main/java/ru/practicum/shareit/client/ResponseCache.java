@@ -0,0 +1,83 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Size- and TTL-bounded cache of successful server responses. Every entry belongs to one tag and
+ * remembers the tag's generation at the moment its call started; invalidating a tag bumps the
+ * generation, which turns all of its entries, including those still being fetched, into misses.
+ * Tags are the ones the server publishes in its change log.
+ */
+@Component
+public class ResponseCache {
+    public static final String ITEMS = "items";
+    public static final String REQUESTS = "requests";
+
+    private final boolean enabled;
+    private final Cache<String, Entry> cache;
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public ResponseCache(@Value("${shareit-server.cache.enabled:true}") boolean enabled,
+                         @Value("${shareit-server.cache.max-size:10000}") long maxSize,
+                         @Value("${shareit-server.cache.ttl:30s}") Duration ttl) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public static String user(long userId) {
+        return "users/" + userId;
+    }
+
+    public ResponseEntity<Object> get(String key, String tag, Supplier<ResponseEntity<Object>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        long generation = generation(tag).get();
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && entry.getGeneration() == generation) {
+            return entry.getResponse();
+        }
+        ResponseEntity<Object> response = call.get();
+        if (response.getStatusCode().is2xxSuccessful()) {
+            cache.put(key, new Entry(generation, response));
+        }
+        return response;
+    }
+
+    public void invalidate(String... tags) {
+        for (String tag : tags) {
+            generation(tag).incrementAndGet();
+        }
+    }
+
+    public void invalidateAll() {
+        generations.values().forEach(AtomicLong::incrementAndGet);
+        cache.invalidateAll();
+    }
+
+    private AtomicLong generation(String tag) {
+        return generations.computeIfAbsent(tag, t -> new AtomicLong());
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class Entry {
+        private final long generation;
+        private final ResponseEntity<Object> response;
+    }
+}
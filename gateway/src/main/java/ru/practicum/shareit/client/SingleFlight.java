@@ -0,0 +1,64 @@
+package ru.practicum.shareit.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses identical concurrent calls into one. The first caller for a key performs the upstream
+ * call, callers arriving while it is in flight wait for the same response, and the key is released
+ * as soon as the call completes, so nothing is cached beyond the lifetime of a single call.
+ */
+@Slf4j
+@Component
+public class SingleFlight {
+    private final ConcurrentHashMap<String, CompletableFuture<ResponseEntity<Object>>> inFlight =
+            new ConcurrentHashMap<>();
+    private final boolean enabled;
+
+    public SingleFlight(@Value("${shareit-server.single-flight.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public ResponseEntity<Object> execute(String key, Supplier<ResponseEntity<Object>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        // A conditional call may come back as 304, which only means something to callers holding that ETag.
+        String ifNoneMatch = BaseClient.incomingIfNoneMatch();
+        String flightKey = ifNoneMatch == null ? key : key + " if-none-match=" + ifNoneMatch;
+        CompletableFuture<ResponseEntity<Object>> flight = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> leader = inFlight.putIfAbsent(flightKey, flight);
+        if (leader != null) {
+            log.debug("Запрос {} присоединён к уже выполняющемуся", flightKey);
+            return await(leader);
+        }
+        try {
+            ResponseEntity<Object> response = call.get();
+            flight.complete(response);
+            return response;
+        } catch (Throwable e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    private static ResponseEntity<Object> await(CompletableFuture<ResponseEntity<Object>> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
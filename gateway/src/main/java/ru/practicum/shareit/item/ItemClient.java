@@ -1,13 +1,15 @@
 package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.SingleFlight;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
@@ -17,26 +19,37 @@ import java.util.Map;
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
+    private final SingleFlight singleFlight;
+    private final ResponseCache responseCache;
+
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory, SingleFlight singleFlight,
+                      ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                        .requestFactory(() -> requestFactory)
                         .build()
         );
+        this.singleFlight = singleFlight;
+        this.responseCache = responseCache;
     }
 
     public ResponseEntity<Object> saveNewItem(ItemDto itemDto, long userId) {
-        return post("", userId, itemDto);
+        ResponseEntity<Object> response = post("", userId, itemDto);
+        responseCache.invalidate(ResponseCache.ITEMS, ResponseCache.REQUESTS);
+        return response;
     }
 
     public ResponseEntity<Object> updateItem(long itemId, ItemDto itemDto, long userId) {
-        return patch("/" + itemId, userId, itemDto);
+        ResponseEntity<Object> response = patch("/" + itemId, userId, itemDto);
+        responseCache.invalidate(ResponseCache.ITEMS, ResponseCache.REQUESTS);
+        return response;
     }
 
     public ResponseEntity<Object> getItemById(long itemId, long userId) {
-        return get("/" + itemId, userId);
+        return singleFlight.execute("GET /items/" + itemId + " user=" + userId, () -> get("/" + itemId, userId));
     }
 
     public ResponseEntity<Object> getItemsByOwner(Integer from, Integer size, long userId) {
@@ -53,10 +66,21 @@ public class ItemClient extends BaseClient {
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        // The search result does not depend on the caller, so all users share one call and one cache entry.
+        String key = "GET /items/search text=" + text + " from=" + from + " size=" + size;
+        return responseCache.get(key, ResponseCache.ITEMS, () -> singleFlight.execute(key,
+                () -> get("/search?text={text}&from={from}&size={size}", userId, parameters)));
     }
 
     public ResponseEntity<Object> saveNewComment(long itemId, CommentDto commentDto, long userId) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
-}
\ No newline at end of file
+
+    public ResponseEntity<Object> getComments(long itemId, Integer size, String cursor) {
+        Map<String, Object> parameters = Map.of(
+                "size", size,
+                "cursor", cursor
+        );
+        return get("/" + itemId + "/comments?size={size}&cursor={cursor}", null, parameters);
+    }
+}
@@ -72,4 +72,12 @@ public class ItemController {
         log.info("POST / comment / item {}", itemId);
         return itemClient.saveNewComment(itemId, commentDto, userId);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<Object> getComments(@PathVariable long itemId,
+                                              @RequestParam(defaultValue = "10") @Positive Integer size,
+                                              @RequestParam(defaultValue = "") String cursor) {
+        log.info("GET / comments / item {}", itemId);
+        return itemClient.getComments(itemId, size, cursor);
+    }
+}
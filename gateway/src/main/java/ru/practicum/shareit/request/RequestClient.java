@@ -1,12 +1,13 @@
 package ru.practicum.shareit.request;
 
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.request.dto.RequestDto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
@@ -16,22 +17,28 @@ import java.util.Map;
 public class RequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
+    private final ResponseCache responseCache;
+
     @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory, ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                        .requestFactory(() -> requestFactory)
                         .build()
         );
+        this.responseCache = responseCache;
     }
 
     public ResponseEntity<Object> saveRequest(RequestDto requestDto, long userId) {
-        return post("", userId, requestDto);
+        ResponseEntity<Object> response = post("", userId, requestDto);
+        responseCache.invalidate(ResponseCache.REQUESTS);
+        return response;
     }
 
     public ResponseEntity<Object> getRequestsByRequestor(long userId) {
-        return get("", userId);
+        return responseCache.get("GET /requests user=" + userId, ResponseCache.REQUESTS, () -> get("", userId));
     }
 
     public ResponseEntity<Object> getAllRequests(Integer from, Integer size, long userId) {
@@ -39,10 +46,12 @@ public class RequestClient extends BaseClient {
                 "from", from,
                 "size", size
         );
-        return get("/all?from={from}&size={size}", userId, parameters);
+        return responseCache.get("GET /requests/all from=" + from + " size=" + size + " user=" + userId,
+                ResponseCache.REQUESTS, () -> get("/all?from={from}&size={size}", userId, parameters));
     }
 
     public ResponseEntity<Object> getRequestById(long requestId, long userId) {
-        return get("/" + requestId, userId);
+        return responseCache.get("GET /requests/" + requestId + " user=" + userId, ResponseCache.REQUESTS,
+                () -> get("/" + requestId, userId));
     }
 }
\ No newline at end of file
@@ -1,12 +1,13 @@
 package ru.practicum.shareit.user;
 
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.user.dto.UserDto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
@@ -14,14 +15,18 @@ import org.springframework.web.util.DefaultUriBuilderFactory;
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
+    private final ResponseCache responseCache;
+
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory, ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                        .requestFactory(() -> requestFactory)
                         .build()
         );
+        this.responseCache = responseCache;
     }
 
     public ResponseEntity<Object> getAllUsers() {
@@ -29,7 +34,7 @@ public class UserClient extends BaseClient {
     }
 
     public ResponseEntity<Object> getUserById(long userId) {
-        return get("/" + userId);
+        return responseCache.get("GET /users/" + userId, ResponseCache.user(userId), () -> get("/" + userId));
     }
 
     public ResponseEntity<Object> saveNewUser(UserDto userDto) {
@@ -37,10 +42,14 @@ public class UserClient extends BaseClient {
     }
 
     public ResponseEntity<Object> updateUser(long userId, UserDto userDto) {
-        return patch("/" + userId, userId, userDto);
+        ResponseEntity<Object> response = patch("/" + userId, userId, userDto);
+        responseCache.invalidate(ResponseCache.user(userId));
+        return response;
     }
 
     public ResponseEntity<Object> deleteUser(long userId) {
-        return delete("/" + userId);
+        ResponseEntity<Object> response = delete("/" + userId);
+        responseCache.invalidate(ResponseCache.user(userId), ResponseCache.ITEMS, ResponseCache.REQUESTS);
+        return response;
     }
 }
\ No newline at end of file
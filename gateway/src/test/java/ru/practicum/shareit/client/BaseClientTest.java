@@ -0,0 +1,156 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class BaseClientTest {
+    private static final byte[] BODY = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+    private MockRestServiceServer server;
+    private TestClient client;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate rest = new RestTemplateBuilder().rootUri("http://server").build();
+        server = MockRestServiceServer.bindTo(rest).build();
+        client = new TestClient(rest);
+        ReflectionTestUtils.setField(client, "passthrough", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void shouldRelayBodyAndEndToEndHeaders_withoutHopByHopOnes() {
+        server.expect(requestTo("http://server/items/1"))
+                .andRespond(withSuccess(BODY, MediaType.APPLICATION_JSON).headers(upstreamHeaders()));
+
+        ResponseEntity<Object> response = client.fetch("/items/1");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(BODY, (byte[]) response.getBody());
+        assertEquals("\"abc\"", response.getHeaders().getETag());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("next", response.getHeaders().getFirst("X-Next-Cursor"));
+        assertHopByHopHeadersRemoved(response.getHeaders());
+    }
+
+    @Test
+    void shouldRelayErrorStatusAndBody_withoutHopByHopHeaders() {
+        server.expect(requestTo("http://server/items/1"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .headers(upstreamHeaders())
+                        .body(BODY));
+
+        ResponseEntity<Object> response = client.fetch("/items/1");
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertArrayEquals(BODY, (byte[]) response.getBody());
+        assertHopByHopHeadersRemoved(response.getHeaders());
+    }
+
+    @Test
+    void shouldForwardIfNoneMatch_andRelayNotModified() {
+        MockHttpServletRequest incoming = new MockHttpServletRequest("GET", "/items/1");
+        incoming.addHeader(HttpHeaders.IF_NONE_MATCH, "\"abc\"");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(incoming));
+        HttpHeaders notModified = new HttpHeaders();
+        notModified.setETag("\"abc\"");
+        server.expect(requestTo("http://server/items/1"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"abc\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED).headers(notModified));
+
+        ResponseEntity<Object> response = client.fetch("/items/1");
+
+        server.verify();
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"abc\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void shouldCloseStreamedResponse_whenAsyncRequestCompletesBeforeBodyIsWritten() throws IOException {
+        MockHttpServletRequest incoming = new MockHttpServletRequest("GET", "/bookings/export");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(incoming));
+        ClientHttpResponse upstream = mock(ClientHttpResponse.class);
+        when(upstream.getStatusCode()).thenReturn(HttpStatus.OK);
+        when(upstream.getHeaders()).thenReturn(new HttpHeaders());
+        server.expect(requestTo("http://server/bookings/export")).andRespond(request -> upstream);
+
+        ResponseEntity<StreamingResponseBody> response = client.export("/bookings/export");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(upstream, never()).close();
+        WebAsyncUtils.getAsyncManager(incoming).getCallableInterceptor(BaseClient.STREAM_CLEANUP_KEY)
+                .afterCompletion(new ServletWebRequest(incoming), () -> null);
+        verify(upstream).close();
+    }
+
+    private static HttpHeaders upstreamHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"abc\"");
+        headers.set("X-Next-Cursor", "next");
+        headers.set(HttpHeaders.CONNECTION, "keep-alive");
+        headers.set("Keep-Alive", "timeout=5");
+        headers.set(HttpHeaders.TRANSFER_ENCODING, "chunked");
+        headers.setContentLength(BODY.length);
+        return headers;
+    }
+
+    private static void assertHopByHopHeadersRemoved(HttpHeaders headers) {
+        assertFalse(headers.containsKey(HttpHeaders.CONNECTION));
+        assertFalse(headers.containsKey("Keep-Alive"));
+        assertFalse(headers.containsKey(HttpHeaders.TRANSFER_ENCODING));
+        assertFalse(headers.containsKey(HttpHeaders.CONTENT_LENGTH));
+    }
+
+    private static class TestClient extends BaseClient {
+        TestClient(RestTemplate rest) {
+            super(rest);
+        }
+
+        ResponseEntity<Object> fetch(String path) {
+            return get(path, 1L);
+        }
+
+        ResponseEntity<StreamingResponseBody> export(String path) throws IOException {
+            return stream(path, 1L, Map.of());
+        }
+    }
+}
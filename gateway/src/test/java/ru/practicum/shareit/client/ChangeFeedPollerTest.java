@@ -0,0 +1,85 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.test.web.client.MockRestServiceServer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class ChangeFeedPollerTest {
+    private final ResponseCache responseCache = mock(ResponseCache.class);
+
+    private MockRestServiceServer server;
+    private ChangeFeedPoller poller;
+
+    @BeforeEach
+    void setUp() {
+        MockServerRestTemplateCustomizer customizer = new MockServerRestTemplateCustomizer();
+        poller = new ChangeFeedPoller("http://server", new RestTemplateBuilder(customizer),
+                new SimpleClientHttpRequestFactory(), responseCache);
+        server = customizer.getServer();
+    }
+
+    @Test
+    void shouldInvalidateChangedTags_withinOneEpoch() {
+        respond("epoch=&since=0", "{\"epoch\":\"a\",\"version\":3,\"reset\":true,\"tags\":[]}");
+        respond("epoch=a&since=3", "{\"epoch\":\"a\",\"version\":4,\"reset\":false,\"tags\":[\"items\"]}");
+
+        poller.poll();
+        poller.poll();
+
+        server.verify();
+        InOrder order = inOrder(responseCache);
+        order.verify(responseCache).invalidateAll();
+        order.verify(responseCache).invalidate("items");
+    }
+
+    @Test
+    void shouldResetCache_whenServerStartsNewEpoch() {
+        respond("epoch=&since=0", "{\"epoch\":\"a\",\"version\":3,\"reset\":true,\"tags\":[]}");
+        respond("epoch=a&since=3", "{\"epoch\":\"b\",\"version\":1,\"reset\":true,\"tags\":[]}");
+        respond("epoch=b&since=1", "{\"epoch\":\"b\",\"version\":1,\"reset\":false,\"tags\":[]}");
+
+        poller.poll();
+        poller.poll();
+        poller.poll();
+
+        server.verify();
+        verify(responseCache, times(2)).invalidateAll();
+        verify(responseCache, never()).invalidate(any(String[].class));
+    }
+
+    @Test
+    void shouldResetCacheAndEpoch_whenServerIsUnreachable() {
+        respond("epoch=&since=0", "{\"epoch\":\"a\",\"version\":3,\"reset\":true,\"tags\":[]}");
+        server.expect(requestTo("/internal/changes?epoch=a&since=3"))
+                .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+        respond("epoch=&since=3", "{\"epoch\":\"a\",\"version\":5,\"reset\":true,\"tags\":[]}");
+
+        poller.poll();
+        poller.poll();
+        poller.poll();
+
+        server.verify();
+        verify(responseCache, times(3)).invalidateAll();
+    }
+
+    private void respond(String query, String changes) {
+        server.expect(requestTo("/internal/changes?" + query))
+                .andRespond(withSuccess(changes, MediaType.APPLICATION_JSON));
+    }
+}
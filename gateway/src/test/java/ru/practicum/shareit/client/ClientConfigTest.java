@@ -0,0 +1,43 @@
+package ru.practicum.shareit.client;
+
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientConfigTest {
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(ClientConfig.class);
+
+    @Test
+    void shouldUseJdkClientWithoutPool_whenVirtualThreadsEnabled() {
+        contextRunner
+                .withPropertyValues("spring.threads.virtual.enabled=true")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(ClientHttpRequestFactory.class);
+                    assertThat(context.getBean(ClientHttpRequestFactory.class))
+                            .isInstanceOf(JdkClientHttpRequestFactory.class);
+                    assertThat(context).doesNotHaveBean(PoolingHttpClientConnectionManager.class);
+                });
+    }
+
+    @Test
+    void shouldShareOnePooledConnectionManager_whenPlatformThreadsUsed() {
+        contextRunner
+                .withPropertyValues("spring.threads.virtual.enabled=false",
+                        "shareit-server.pool.max-total=50",
+                        "shareit-server.pool.max-per-route=20")
+                .run(context -> {
+                    assertThat(context.getBean(ClientHttpRequestFactory.class))
+                            .isInstanceOf(HttpComponentsClientHttpRequestFactory.class);
+                    PoolingHttpClientConnectionManager connectionManager =
+                            context.getBean(PoolingHttpClientConnectionManager.class);
+                    assertThat(connectionManager.getMaxTotal()).isEqualTo(50);
+                    assertThat(connectionManager.getDefaultMaxPerRoute()).isEqualTo(20);
+                });
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ResponseCacheTest {
+    private static final String KEY = "/items/1 user=1";
+
+    private final ResponseCache cache = new ResponseCache(true, 100, Duration.ofMinutes(1));
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void shouldServeCachedResponse_untilTagIsInvalidated() {
+        cache.get(KEY, ResponseCache.ITEMS, countingCall(ResponseEntity.ok("v1")));
+        ResponseEntity<Object> cached = cache.get(KEY, ResponseCache.ITEMS, countingCall(ResponseEntity.ok("v2")));
+        assertEquals("v1", cached.getBody());
+
+        cache.invalidate(ResponseCache.ITEMS);
+        ResponseEntity<Object> fresh = cache.get(KEY, ResponseCache.ITEMS, countingCall(ResponseEntity.ok("v2")));
+
+        assertEquals("v2", fresh.getBody());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void shouldKeepEntries_whenOtherTagIsInvalidated() {
+        cache.get(KEY, ResponseCache.ITEMS, countingCall(ResponseEntity.ok("v1")));
+
+        cache.invalidate(ResponseCache.REQUESTS, ResponseCache.user(1L));
+        ResponseEntity<Object> cached = cache.get(KEY, ResponseCache.ITEMS, countingCall(ResponseEntity.ok("v2")));
+
+        assertEquals("v1", cached.getBody());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void shouldNotServeResponse_whenTagWasInvalidatedWhileItWasFetched() {
+        cache.get(KEY, ResponseCache.ITEMS, () -> {
+            calls.incrementAndGet();
+            cache.invalidate(ResponseCache.ITEMS);
+            return ResponseEntity.ok("stale");
+        });
+
+        ResponseEntity<Object> fresh = cache.get(KEY, ResponseCache.ITEMS, countingCall(ResponseEntity.ok("fresh")));
+
+        assertEquals("fresh", fresh.getBody());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void shouldDropEveryTag_whenInvalidatedAll() {
+        cache.get(KEY, ResponseCache.ITEMS, countingCall(ResponseEntity.ok("v1")));
+        cache.get("/requests/1 user=1", ResponseCache.REQUESTS, countingCall(ResponseEntity.ok("r1")));
+
+        cache.invalidateAll();
+        cache.get(KEY, ResponseCache.ITEMS, countingCall(ResponseEntity.ok("v2")));
+        cache.get("/requests/1 user=1", ResponseCache.REQUESTS, countingCall(ResponseEntity.ok("r2")));
+
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    void shouldNotCacheErrorResponses() {
+        cache.get(KEY, ResponseCache.ITEMS, countingCall(ResponseEntity.notFound().build()));
+        ResponseEntity<Object> found = cache.get(KEY, ResponseCache.ITEMS, countingCall(ResponseEntity.ok("v1")));
+
+        assertEquals("v1", found.getBody());
+        assertEquals(2, calls.get());
+    }
+
+    private Supplier<ResponseEntity<Object>> countingCall(ResponseEntity<Object> response) {
+        return () -> {
+            calls.incrementAndGet();
+            return response;
+        };
+    }
+}
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+    private static final String KEY = "GET /items/1 user=1";
+
+    private final SingleFlight singleFlight = new SingleFlight(true);
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final CountDownLatch leaderStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseLeader = new CountDownLatch(1);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldShareOneCall_betweenConcurrentCallersOfSameKey() throws Exception {
+        ResponseEntity<Object> response = ResponseEntity.ok("item");
+        Future<ResponseEntity<Object>> leader = executor.submit(() ->
+                singleFlight.execute(KEY, blockingCall(() -> response)));
+        leaderStarted.await(5, TimeUnit.SECONDS);
+
+        Future<ResponseEntity<Object>> follower = submitFollower(() -> singleFlight.execute(KEY, () -> {
+            calls.incrementAndGet();
+            return ResponseEntity.ok("other");
+        }));
+        releaseLeader.countDown();
+
+        assertSame(response, leader.get(5, TimeUnit.SECONDS));
+        assertSame(response, follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void shouldPropagateLeaderFailure_toJoinedCallers() throws Exception {
+        IllegalStateException failure = new IllegalStateException("server unavailable");
+        Future<ResponseEntity<Object>> leader = executor.submit(() ->
+                singleFlight.execute(KEY, blockingCall(() -> {
+                    throw failure;
+                })));
+        leaderStarted.await(5, TimeUnit.SECONDS);
+
+        AtomicReference<RuntimeException> followerFailure = new AtomicReference<>();
+        Future<ResponseEntity<Object>> follower = submitFollower(() -> {
+            try {
+                return singleFlight.execute(KEY, () -> {
+                    calls.incrementAndGet();
+                    return ResponseEntity.ok("other");
+                });
+            } catch (RuntimeException e) {
+                followerFailure.set(e);
+                return null;
+            }
+        });
+        releaseLeader.countDown();
+
+        Exception leaderFailure = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        assertSame(failure, leaderFailure.getCause());
+        follower.get(5, TimeUnit.SECONDS);
+        assertSame(failure, followerFailure.get());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void shouldCallAgain_afterPreviousCallCompleted() {
+        singleFlight.execute(KEY, () -> {
+            calls.incrementAndGet();
+            return ResponseEntity.ok("first");
+        });
+        ResponseEntity<Object> second = singleFlight.execute(KEY, () -> {
+            calls.incrementAndGet();
+            return ResponseEntity.ok("second");
+        });
+
+        assertEquals("second", second.getBody());
+        assertEquals(2, calls.get());
+    }
+
+    private Supplier<ResponseEntity<Object>> blockingCall(Supplier<ResponseEntity<Object>> result) {
+        return () -> {
+            calls.incrementAndGet();
+            leaderStarted.countDown();
+            try {
+                releaseLeader.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return result.get();
+        };
+    }
+
+    /**
+     * Starts a caller and returns once it is parked waiting for the leader, so the leader cannot
+     * finish before the follower has joined its flight.
+     */
+    private Future<ResponseEntity<Object>> submitFollower(Callable<ResponseEntity<Object>> call)
+            throws InterruptedException {
+        AtomicReference<Thread> thread = new AtomicReference<>();
+        Future<ResponseEntity<Object>> future = executor.submit(() -> {
+            thread.set(Thread.currentThread());
+            return call.call();
+        });
+        while (thread.get() == null || thread.get().getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        return future;
+    }
+}
@@ -1,19 +1,35 @@
 package ru.practicum.shareit.booking.controllers;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.service.BookingExport;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.utils.KeysetCursor;
 
 import java.util.List;
 
 @Slf4j
+@Validated
 @RequiredArgsConstructor
 @RestController
 @RequestMapping(path = "/bookings")
 public class BookingController {
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
 
     @PostMapping
@@ -22,6 +38,13 @@ public class BookingController {
         return bookingService.save(bookingDtoIn, userId);
     }
 
+    @PostMapping("/batch")
+    public List<BookingDtoOut> saveNewBookings(@RequestBody @Size(min = 1, max = MAX_BATCH_SIZE)
+                                               List<@NotNull @Valid BookingDtoIn> bookingDtoIns,
+                                               @RequestHeader("X-Sharer-User-Id") long userId) {
+        return bookingService.saveAll(bookingDtoIns, userId);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDtoOut approve(@PathVariable long bookingId,
                                  @RequestParam(name = "approved") Boolean isApproved,
@@ -36,18 +59,61 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDtoOut> getAllByBooker(@RequestParam(defaultValue = "1") Integer from,
-                                              @RequestParam(defaultValue = "10") Integer size,
-                                              @RequestParam(name = "state", defaultValue = "ALL") String state,
-                                              @RequestHeader("X-Sharer-User-Id") long bookerId) {
-        return bookingService.getAllByBooker(from, size, state, bookerId);
+    public ResponseEntity<List<BookingDtoOut>> getAllByBooker(@RequestParam(defaultValue = "1") Integer from,
+                                                              @RequestParam(defaultValue = "10") @Positive Integer size,
+                                                              @RequestParam(name = "state", defaultValue = "ALL") String state,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestHeader("X-Sharer-User-Id") long bookerId) {
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.getAllByBooker(from, size, state, bookerId));
+        }
+        return withNextCursor(bookingService.getAllByBookerAfter(KeysetCursor.decode(cursor), size, state, bookerId),
+                size);
     }
 
     @GetMapping("/owner")
-    public List<BookingDtoOut> getAllByOwner(@RequestParam(defaultValue = "1") Integer from,
-                                             @RequestParam(defaultValue = "10") Integer size,
-                                             @RequestParam(name = "state", defaultValue = "ALL") String state,
-                                             @RequestHeader("X-Sharer-User-Id") long ownerId) {
-        return bookingService.getAllByOwner(from, size, state, ownerId);
+    public ResponseEntity<List<BookingDtoOut>> getAllByOwner(@RequestParam(defaultValue = "1") Integer from,
+                                                             @RequestParam(defaultValue = "10") @Positive Integer size,
+                                                             @RequestParam(name = "state", defaultValue = "ALL") String state,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestHeader("X-Sharer-User-Id") long ownerId) {
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.getAllByOwner(from, size, state, ownerId));
+        }
+        return withNextCursor(bookingService.getAllByOwnerAfter(KeysetCursor.decode(cursor), size, state, ownerId),
+                size);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportByBooker(@RequestHeader("X-Sharer-User-Id") long bookerId,
+                                                                HttpServletRequest request) {
+        return streamed(bookingService.exportByBooker(bookerId), request);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportByOwner(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                               HttpServletRequest request) {
+        return streamed(bookingService.exportByOwner(ownerId), request);
+    }
+
+    /**
+     * Sends the export as NDJSON while it is being read from the database. The ETag filter would
+     * otherwise buffer the whole body to hash it.
+     */
+    private ResponseEntity<StreamingResponseBody> streamed(BookingExport export, HttpServletRequest request) {
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(export::writeTo);
+    }
+
+    private ResponseEntity<List<BookingDtoOut>> withNextCursor(List<BookingDtoOut> bookings, int size) {
+        if (bookings.size() < size) {
+            return ResponseEntity.ok(bookings);
+        }
+        BookingDtoOut last = bookings.get(bookings.size() - 1);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, new KeysetCursor(last.getStart(), last.getId()).encode())
+                .body(bookings);
     }
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class ApprovedBooking {
+    private long bookingId;
+    private long itemId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private long bookerId;
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.dto;
 
+import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
@@ -8,7 +9,10 @@ import java.time.LocalDateTime;
 @Data
 @AllArgsConstructor
 public class BookingDtoIn {
+    @NotNull
     private LocalDateTime start;
+    @NotNull
     private LocalDateTime end;
+    @NotNull
     private Long itemId;
 }
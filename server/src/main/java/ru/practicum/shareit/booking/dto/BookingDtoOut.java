@@ -17,4 +17,9 @@ public class BookingDtoOut {
     private ItemDtoShort item;
     private UserDtoShort booker;
     private BookingStatusEnum status;
+
+    public BookingDtoOut(long id, LocalDateTime start, LocalDateTime end, long itemId, String itemName,
+                         long bookerId, String bookerName, BookingStatusEnum status) {
+        this(id, start, end, new ItemDtoShort(itemId, itemName), new UserDtoShort(bookerId, bookerName), status);
+    }
 }
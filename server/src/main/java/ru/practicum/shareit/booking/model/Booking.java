@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import ru.practicum.shareit.enums.BookingPhaseEnum;
 import ru.practicum.shareit.enums.BookingStatusEnum;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -17,8 +18,13 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 public class Booking {
 
+    /**
+     * Drawn from a pooled sequence rather than the identity column, so Hibernate knows ids before
+     * inserting and can send new bookings to the database in JDBC batches.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private long id;
 
     @Column(name = "start_date")
@@ -27,14 +33,45 @@ public class Booking {
     @Column(name = "end_date")
     private LocalDateTime end;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
     @JoinColumn(name = "item_id")
     private Item item;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
     @JoinColumn(name = "booker_id")
     private User booker;
 
+    @Column(name = "owner_id")
+    private Long ownerId;
+
     @Enumerated(EnumType.STRING)
     private BookingStatusEnum status;
+
+    /**
+     * Where the booking stands relative to the clock. Written on insert and afterwards only by the
+     * bulk updates of BookingPhaseScheduler, so an entity flushed with a stale value cannot roll it back.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(updatable = false)
+    private BookingPhaseEnum phase;
+
+    @Version
+    private long version;
+
+    @PrePersist
+    void onPersist() {
+        syncOwnerId();
+        if (phase == null && start != null && end != null) {
+            phase = BookingPhaseEnum.at(start, end, LocalDateTime.now());
+        }
+    }
+
+    @PreUpdate
+    void syncOwnerId() {
+        if (item != null && item.getOwner() != null) {
+            ownerId = item.getOwner().getId();
+        }
+    }
 }
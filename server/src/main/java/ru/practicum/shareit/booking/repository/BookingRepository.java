@@ -1,74 +1,193 @@
 package ru.practicum.shareit.booking.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.dto.ApprovedBooking;
+import ru.practicum.shareit.booking.dto.BookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.enums.BookingStatusEnum;
-import ru.practicum.shareit.item.model.Item;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findAllByBookerId(long bookerId, Pageable pageable);
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long id);
 
-    @Query("SELECT b FROM Booking b " +
+    @Query("SELECT b.item.id FROM Booking b WHERE b.id = ?1")
+    Optional<Long> findItemIdById(long bookingId);
+
+    String DTO_OUT_SELECT = "SELECT new ru.practicum.shareit.booking.dto.BookingDtoOut(" +
+            "b.id, b.start, b.end, i.id, i.name, u.id, u.name, b.status) " +
+            "FROM Booking b JOIN b.item i JOIN b.booker u ";
+
+    String EXPORT_FETCH_SIZE = "500";
+
+    @Query(DTO_OUT_SELECT +
+            "WHERE b.booker.id = ?1")
+    List<BookingDtoOut> findAllByBookerId(long bookerId, Pageable pageable);
+
+    @Query(DTO_OUT_SELECT +
             "WHERE b.booker.id = ?1 " +
-            "AND current_timestamp BETWEEN b.start AND b.end")
-    List<Booking> findAllByBookerIdAndStateCurrent(long bookerId, Pageable pageable);
+            "AND b.phase = ru.practicum.shareit.enums.BookingPhaseEnum.CURRENT")
+    List<BookingDtoOut> findAllByBookerIdAndStateCurrent(long bookerId, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b " +
+    @Query(DTO_OUT_SELECT +
             "WHERE b.booker.id = ?1 " +
-            "AND current_timestamp > b.end")
-    List<Booking> findAllByBookerIdAndStatePast(long brokerId, Pageable pageable);
+            "AND b.phase = ru.practicum.shareit.enums.BookingPhaseEnum.PAST")
+    List<BookingDtoOut> findAllByBookerIdAndStatePast(long brokerId, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b " +
+    @Query(DTO_OUT_SELECT +
             "WHERE b.booker.id = ?1 " +
-            "AND current_timestamp < b.start")
-    List<Booking> findAllByBookerIdAndStateFuture(long bookerId, Pageable pageable);
+            "AND b.phase = ru.practicum.shareit.enums.BookingPhaseEnum.FUTURE")
+    List<BookingDtoOut> findAllByBookerIdAndStateFuture(long bookerId, Pageable pageable);
 
-    List<Booking> findAllByBookerIdAndStatus(long bookerId, BookingStatusEnum bookingStatus, Pageable pageable);
+    @Query(DTO_OUT_SELECT +
+            "WHERE b.booker.id = ?1 " +
+            "AND b.status = ?2")
+    List<BookingDtoOut> findAllByBookerIdAndStatus(long bookerId, BookingStatusEnum bookingStatus, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b " +
-            "WHERE b.item.owner.id = ?1")
-    List<Booking> findAllByOwnerId(long ownerId, Pageable pageable);
+    @Query(DTO_OUT_SELECT +
+            "WHERE b.ownerId = ?1")
+    List<BookingDtoOut> findAllByOwnerId(long ownerId, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b " +
-            "WHERE b.item.owner.id = ?1 " +
-            "AND current_timestamp BETWEEN b.start AND b.end")
-    List<Booking> findAllByOwnerIdAndStateCurrent(long ownerId, Pageable pageable);
+    @Query(DTO_OUT_SELECT +
+            "WHERE b.ownerId = ?1 " +
+            "AND b.phase = ru.practicum.shareit.enums.BookingPhaseEnum.CURRENT")
+    List<BookingDtoOut> findAllByOwnerIdAndStateCurrent(long ownerId, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b " +
-            "WHERE b.item.owner.id = ?1 " +
-            "AND current_timestamp > b.end")
-    List<Booking> findAllByOwnerIdAndStatePast(long ownerId, Pageable pageable);
+    @Query(DTO_OUT_SELECT +
+            "WHERE b.ownerId = ?1 " +
+            "AND b.phase = ru.practicum.shareit.enums.BookingPhaseEnum.PAST")
+    List<BookingDtoOut> findAllByOwnerIdAndStatePast(long ownerId, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b " +
-            "WHERE b.item.owner.id = ?1 " +
-            "AND current_timestamp < b.start")
-    List<Booking> findAllByOwnerIdAndStateFuture(long ownerId, Pageable pageable);
+    @Query(DTO_OUT_SELECT +
+            "WHERE b.ownerId = ?1 " +
+            "AND b.phase = ru.practicum.shareit.enums.BookingPhaseEnum.FUTURE")
+    List<BookingDtoOut> findAllByOwnerIdAndStateFuture(long ownerId, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b " +
-            "WHERE b.item.owner.id = ?1 " +
+    @Query(DTO_OUT_SELECT +
+            "WHERE b.ownerId = ?1 " +
             "AND b.status = ?2")
-    List<Booking> findAllByOwnerIdAndStatus(long ownerId, BookingStatusEnum bookingStatus, Pageable pageable);
+    List<BookingDtoOut> findAllByOwnerIdAndStatus(long ownerId, BookingStatusEnum bookingStatus, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(DTO_OUT_SELECT +
+            "WHERE b.booker.id = ?1 " +
+            "ORDER BY b.start DESC, b.id DESC")
+    Stream<BookingDtoOut> streamAllByBookerId(long bookerId);
 
-    Optional<Booking> findFirstByItemIdAndStartLessThanEqualAndStatus(long itemId, LocalDateTime localDateTime,
-                                                                      BookingStatusEnum bookingStatus, Sort end);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(DTO_OUT_SELECT +
+            "WHERE b.ownerId = ?1 " +
+            "ORDER BY b.start DESC, b.id DESC")
+    Stream<BookingDtoOut> streamAllByOwnerId(long ownerId);
 
-    Optional<Booking> findFirstByItemIdAndStartAfterAndStatus(long itemId, LocalDateTime localDateTime,
-                                                              BookingStatusEnum bookingStatus, Sort end);
+    @Query(DTO_OUT_SELECT +
+            "WHERE b.booker.id = ?1 " +
+            "AND (b.start, b.id) < (?2, ?3)")
+    List<BookingDtoOut> findKeysetByBookerId(long bookerId, LocalDateTime start, long id, Pageable pageable);
+
+    @Query(DTO_OUT_SELECT +
+            "WHERE b.booker.id = ?1 " +
+            "AND b.phase = ru.practicum.shareit.enums.BookingPhaseEnum.CURRENT " +
+            "AND (b.start, b.id) < (?2, ?3)")
+    List<BookingDtoOut> findKeysetByBookerIdAndStateCurrent(long bookerId, LocalDateTime start, long id,
+                                                      Pageable pageable);
+
+    @Query(DTO_OUT_SELECT +
+            "WHERE b.booker.id = ?1 " +
+            "AND b.phase = ru.practicum.shareit.enums.BookingPhaseEnum.PAST " +
+            "AND (b.start, b.id) < (?2, ?3)")
+    List<BookingDtoOut> findKeysetByBookerIdAndStatePast(long bookerId, LocalDateTime start, long id, Pageable pageable);
 
-    List<Booking> findByItemInAndStartLessThanEqualAndStatus(List<Item> items, LocalDateTime thisMoment,
-                                                             BookingStatusEnum approved, Sort end);
+    @Query(DTO_OUT_SELECT +
+            "WHERE b.booker.id = ?1 " +
+            "AND b.phase = ru.practicum.shareit.enums.BookingPhaseEnum.FUTURE " +
+            "AND (b.start, b.id) < (?2, ?3)")
+    List<BookingDtoOut> findKeysetByBookerIdAndStateFuture(long bookerId, LocalDateTime start, long id,
+                                                     Pageable pageable);
 
-    List<Booking> findByItemInAndStartAfterAndStatus(List<Item> items, LocalDateTime thisMoment,
-                                                     BookingStatusEnum approved, Sort end);
+    @Query(DTO_OUT_SELECT +
+            "WHERE b.booker.id = ?1 " +
+            "AND b.status = ?2 " +
+            "AND (b.start, b.id) < (?3, ?4)")
+    List<BookingDtoOut> findKeysetByBookerIdAndStatus(long bookerId, BookingStatusEnum bookingStatus, LocalDateTime start,
+                                                long id, Pageable pageable);
+
+    @Query(DTO_OUT_SELECT +
+            "WHERE b.ownerId = ?1 " +
+            "AND (b.start, b.id) < (?2, ?3)")
+    List<BookingDtoOut> findKeysetByOwnerId(long ownerId, LocalDateTime start, long id, Pageable pageable);
+
+    @Query(DTO_OUT_SELECT +
+            "WHERE b.ownerId = ?1 " +
+            "AND b.phase = ru.practicum.shareit.enums.BookingPhaseEnum.CURRENT " +
+            "AND (b.start, b.id) < (?2, ?3)")
+    List<BookingDtoOut> findKeysetByOwnerIdAndStateCurrent(long ownerId, LocalDateTime start, long id, Pageable pageable);
+
+    @Query(DTO_OUT_SELECT +
+            "WHERE b.ownerId = ?1 " +
+            "AND b.phase = ru.practicum.shareit.enums.BookingPhaseEnum.PAST " +
+            "AND (b.start, b.id) < (?2, ?3)")
+    List<BookingDtoOut> findKeysetByOwnerIdAndStatePast(long ownerId, LocalDateTime start, long id, Pageable pageable);
+
+    @Query(DTO_OUT_SELECT +
+            "WHERE b.ownerId = ?1 " +
+            "AND b.phase = ru.practicum.shareit.enums.BookingPhaseEnum.FUTURE " +
+            "AND (b.start, b.id) < (?2, ?3)")
+    List<BookingDtoOut> findKeysetByOwnerIdAndStateFuture(long ownerId, LocalDateTime start, long id, Pageable pageable);
+
+    @Query(DTO_OUT_SELECT +
+            "WHERE b.ownerId = ?1 " +
+            "AND b.status = ?2 " +
+            "AND (b.start, b.id) < (?3, ?4)")
+    List<BookingDtoOut> findKeysetByOwnerIdAndStatus(long ownerId, BookingStatusEnum bookingStatus, LocalDateTime start,
+                                               long id, Pageable pageable);
 
     Boolean existsByBookerIdAndItemIdAndEndBefore(long bookerId, long itemId, LocalDateTime localDateTime);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingInterval(b.id, b.item.id, b.start, b.end) " +
+            "FROM Booking b " +
+            "WHERE b.status IN ?1 " +
+            "AND b.end > ?2")
+    List<BookingInterval> findIntervalsByStatusInAndEndAfter(Collection<BookingStatusEnum> statuses,
+                                                             LocalDateTime moment);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.ApprovedBooking(b.id, b.item.id, b.start, b.end, b.booker.id) " +
+            "FROM Booking b " +
+            "WHERE b.status = ?1 " +
+            "AND b.start <= ?2 " +
+            "AND b.end = (SELECT MAX(l.end) FROM Booking l " +
+            "WHERE l.item = b.item AND l.status = ?1 AND l.start <= ?2)")
+    List<ApprovedBooking> findLastByStatusPerItem(BookingStatusEnum status, LocalDateTime moment);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.ApprovedBooking(b.id, b.item.id, b.start, b.end, b.booker.id) " +
+            "FROM Booking b " +
+            "WHERE b.status = ?1 " +
+            "AND b.start > ?2")
+    List<ApprovedBooking> findByStatusStartingAfter(BookingStatusEnum status, LocalDateTime moment);
+
+    @Modifying
+    @Query(value = "UPDATE bookings SET phase = 'CURRENT' " +
+            "WHERE phase = 'FUTURE' AND start_date <= ?1 AND end_date >= ?1", nativeQuery = true)
+    int markStarted(LocalDateTime now);
+
+    @Modifying
+    @Query(value = "UPDATE bookings SET phase = 'PAST' " +
+            "WHERE phase IN ('FUTURE', 'CURRENT') AND end_date < ?1", nativeQuery = true)
+    int markEnded(LocalDateTime now);
 }
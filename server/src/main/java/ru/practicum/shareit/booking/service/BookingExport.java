@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A booking history that has passed validation and is written out once the response body is
+ * ready to receive it.
+ */
+@FunctionalInterface
+public interface BookingExport {
+    void writeTo(OutputStream out) throws IOException;
+}
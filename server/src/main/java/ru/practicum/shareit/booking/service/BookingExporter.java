@@ -0,0 +1,49 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes a whole booking history as NDJSON, one booking per line, straight from a database cursor.
+ * Rows are projected into DTOs, so nothing piles up in the persistence context, and the driver
+ * holds only one fetch window while the response is being written.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingExporter {
+    private final BookingRepository bookingRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void writeByBooker(long bookerId, OutputStream out) throws IOException {
+        try (Stream<BookingDtoOut> bookings = bookingRepository.streamAllByBookerId(bookerId)) {
+            write(bookings, out);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void writeByOwner(long ownerId, OutputStream out) throws IOException {
+        try (Stream<BookingDtoOut> bookings = bookingRepository.streamAllByOwnerId(ownerId)) {
+            write(bookings, out);
+        }
+    }
+
+    private void write(Stream<BookingDtoOut> bookings, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(BookingDtoOut.class);
+        Iterator<BookingDtoOut> iterator = bookings.iterator();
+        while (iterator.hasNext()) {
+            out.write(writer.writeValueAsBytes(iterator.next()));
+            out.write('\n');
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.booking.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.enums.BookingStatusEnum;
+import ru.practicum.shareit.utils.TransactionHooks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory index of WAITING and APPROVED bookings per item, ordered by start date and then by
+ * booking id, so every booking keeps its own entry even when legacy rows share a start.
+ * Legacy rows loaded on warm-up may overlap each other, so a check walks back from the latest
+ * start before the queried end and stops once even the longest interval ever stored for the item
+ * could not reach the queried start. The walk is bounded by that longest duration rather than
+ * by the number of bookings, and never touches the database.
+ * The index is per instance and sees only bookings written through this server since warm-up;
+ * on PostgreSQL the bookings_no_overlap_excl constraint rejects overlaps admitted by another instance.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+    private static final List<BookingStatusEnum> ACTIVE_STATUSES =
+            List.of(BookingStatusEnum.WAITING, BookingStatusEnum.APPROVED);
+    private static final Comparator<BookingInterval> START_ORDER = Comparator.comparing(BookingInterval::getStart)
+            .thenComparingLong(BookingInterval::getBookingId);
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, ItemIntervals> intervalsByItem = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void warmUp() {
+        List<BookingInterval> intervals = bookingRepository.findIntervalsByStatusInAndEndAfter(ACTIVE_STATUSES,
+                LocalDateTime.now());
+        intervals.forEach(this::add);
+        log.info("Индекс бронирований заполнен, интервалов: {}", intervals.size());
+    }
+
+    public boolean hasOverlap(long itemId, LocalDateTime start, LocalDateTime end) {
+        return hasOverlap(itemId, start, end, 0);
+    }
+
+    public boolean hasOverlap(long itemId, LocalDateTime start, LocalDateTime end, long excludedBookingId) {
+        ItemIntervals itemIntervals = intervalsByItem.get(itemId);
+        if (itemIntervals == null) {
+            return false;
+        }
+        Duration longest = itemIntervals.longest.get();
+        BookingInterval bound = new BookingInterval(Long.MIN_VALUE, itemId, end, end);
+        for (BookingInterval interval : itemIntervals.intervals.headSet(bound, false).descendingSet()) {
+            if (!interval.getStart().plus(longest).isAfter(start)) {
+                return false;
+            }
+            if (interval.getBookingId() != excludedBookingId && interval.getEnd().isAfter(start)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void register(Booking booking) {
+        BookingInterval interval = new BookingInterval(booking.getId(), booking.getItem().getId(),
+                booking.getStart(), booking.getEnd());
+        TransactionHooks.afterCommit(() -> add(interval));
+    }
+
+    public void unregister(Booking booking) {
+        long bookingId = booking.getId();
+        long itemId = booking.getItem().getId();
+        LocalDateTime start = booking.getStart();
+        TransactionHooks.afterCommit(() -> remove(itemId, bookingId, start));
+    }
+
+    private void add(BookingInterval interval) {
+        ItemIntervals itemIntervals = intervalsByItem.computeIfAbsent(interval.getItemId(),
+                id -> new ItemIntervals());
+        Duration duration = Duration.between(interval.getStart(), interval.getEnd());
+        itemIntervals.longest.accumulateAndGet(duration, (a, b) -> a.compareTo(b) >= 0 ? a : b);
+        itemIntervals.intervals.add(interval);
+        purgeExpired(itemIntervals.intervals, LocalDateTime.now());
+    }
+
+    private void remove(long itemId, long bookingId, LocalDateTime start) {
+        ItemIntervals itemIntervals = intervalsByItem.get(itemId);
+        if (itemIntervals != null) {
+            itemIntervals.intervals.remove(new BookingInterval(bookingId, itemId, start, start));
+        }
+    }
+
+    private void purgeExpired(ConcurrentSkipListSet<BookingInterval> intervals, LocalDateTime now) {
+        for (BookingInterval interval : intervals) {
+            if (!interval.getEnd().isBefore(now)) {
+                return;
+            }
+            intervals.remove(interval);
+        }
+    }
+
+    /**
+     * The longest duration only grows: removing a booking may leave it larger than needed, which
+     * costs a few extra steps of the walk but never a missed overlap.
+     */
+    private static final class ItemIntervals {
+        private final ConcurrentSkipListSet<BookingInterval> intervals = new ConcurrentSkipListSet<>(START_ORDER);
+        private final AtomicReference<Duration> longest = new AtomicReference<>(Duration.ZERO);
+    }
+}
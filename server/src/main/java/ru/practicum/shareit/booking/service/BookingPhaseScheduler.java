@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Rolls the persisted booking phase forward as the clock passes start and end dates, so
+ * CURRENT/PAST/FUTURE listings filter on an indexed column instead of comparing every row with
+ * current_timestamp. Each tick moves the rows whose boundary has passed with two bulk updates
+ * over the (phase, start_date) and (phase, end_date) indexes, so a phase lags the clock by at most
+ * a tick. The table is the only state: a failed tick is redone by the next one, boundaries missed
+ * while the server was down go out on the first tick, and every instance may run it concurrently.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingPhaseScheduler {
+    private final BookingRepository bookingRepository;
+
+    @Scheduled(fixedDelayString = "${shareit.booking.phase-tick:1s}")
+    @Transactional
+    public void rollForward() {
+        LocalDateTime now = LocalDateTime.now();
+        int ended = bookingRepository.markEnded(now);
+        int started = bookingRepository.markStarted(now);
+        if (started > 0 || ended > 0) {
+            log.debug("Фазы бронирований обновлены: началось {}, завершилось {}", started, ended);
+        }
+    }
+}
@@ -2,12 +2,15 @@ package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.utils.KeysetCursor;
 
 import java.util.List;
 
 public interface BookingService {
     BookingDtoOut save(BookingDtoIn bookingDto, long userId);
 
+    List<BookingDtoOut> saveAll(List<BookingDtoIn> bookingDtos, long userId);
+
     BookingDtoOut approve(long bookingId, Boolean isApproved, long userId);
 
     BookingDtoOut getBookingById(long bookingId, long userId);
@@ -15,4 +18,12 @@ public interface BookingService {
     List<BookingDtoOut> getAllByBooker(Integer from, Integer size, String state, long bookerId);
 
     List<BookingDtoOut> getAllByOwner(Integer from, Integer size, String state, long ownerId);
+
+    List<BookingDtoOut> getAllByBookerAfter(KeysetCursor cursor, Integer size, String state, long bookerId);
+
+    List<BookingDtoOut> getAllByOwnerAfter(KeysetCursor cursor, Integer size, String state, long ownerId);
+
+    BookingExport exportByBooker(long bookerId);
+
+    BookingExport exportByOwner(long ownerId);
 }
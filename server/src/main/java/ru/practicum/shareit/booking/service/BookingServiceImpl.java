@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.service;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
@@ -19,60 +20,91 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
+import ru.practicum.shareit.utils.KeysetCursor;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
 
 @Slf4j
 @Transactional
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final Sort KEYSET_ORDER = Sort.by(Sort.Direction.DESC, "start", "id");
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final ItemRepository itemRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final LastNextBookingIndex lastNextBookingIndex;
+    private final BookingExporter bookingExporter;
+    private final ItemLockStripes itemLockStripes;
 
     @Override
     public BookingDtoOut save(BookingDtoIn bookingDtoIn, long userId) {
         User booker = getUser(userId);
+        itemLockStripes.lockUntilCompletion(bookingDtoIn.getItemId());
         Item item = getItem(bookingDtoIn.getItemId());
+        checkBookable(bookingDtoIn, item, userId);
 
-        if (bookingDtoIn.getStart() == null) {
-            throw new InvalidBookingDateException("Дата начала бронирования не может быть null.");
-        }
-
-        if (bookingDtoIn.getEnd() == null) {
-            throw new InvalidBookingDateException("Дата окончания бронирования не может быть null.");
-        }
+        Booking booking = toNewBooking(bookingDtoIn, item, booker);
+        insert(() -> bookingRepository.saveAndFlush(booking));
+        register(booking);
+        log.info("Бронирование с идентификатором {} создано", booking.getId());
+        return BookingMapper.toBookingDtoOut(booking);
+    }
 
-        if (!item.getAvailable()) {
-            throw new ItemIsNotAvailableException("Вещь недоступна для брони");
-        }
-        if (Long.valueOf(userId).equals(item.getOwner().getId())) {
-            throw new NotAvailableToBookOwnItemsException("Функция бронировать собственную вещь отсутствует");
-        }
+    @Override
+    public List<BookingDtoOut> saveAll(List<BookingDtoIn> bookingDtoIns, long userId) {
+        User booker = getUser(userId);
+        Set<Long> itemIds = bookingDtoIns.stream()
+                .map(BookingDtoIn::getItemId)
+                .filter(Objects::nonNull)
+                .collect(toSet());
+        itemLockStripes.lockAllUntilCompletion(itemIds);
+        Map<Long, Item> items = itemIds.isEmpty() ? Collections.emptyMap() : itemRepository
+                .findAllById(itemIds)
+                .stream()
+                .collect(toMap(Item::getId, identity()));
 
-        if (bookingDtoIn.getStart().isBefore(LocalDateTime.now())) {
-            throw new InvalidBookingDateException("Дата начала бронирования не может быть в прошлом.");
-        }
-        if (bookingDtoIn.getEnd().isBefore(bookingDtoIn.getStart())) {
-            throw new InvalidBookingDateException("Дата окончания бронирования должна быть позже даты начала.");
+        List<Booking> bookings = new ArrayList<>(bookingDtoIns.size());
+        for (BookingDtoIn bookingDtoIn : bookingDtoIns) {
+            Item item = items.get(bookingDtoIn.getItemId());
+            if (item == null) {
+                throw new EntityNotFoundException(String.format("Объект класса %s не найден", Item.class));
+            }
+            checkBookable(bookingDtoIn, item, userId);
+            bookings.add(toNewBooking(bookingDtoIn, item, booker));
         }
+        checkNoOverlapWithinBatch(bookings);
 
-
-        Booking booking = new Booking();
-        booking.setItem(item);
-        booking.setBooker(booker);
-        bookingRepository.save(BookingMapper.toBooking(bookingDtoIn, booking));
-        log.info("Бронирование с идентификатором {} создано", booking.getId());
-        return BookingMapper.toBookingDtoOut(booking);
+        insert(() -> bookingRepository.saveAllAndFlush(bookings));
+        bookings.forEach(this::register);
+        log.info("Создано бронирований: {}", bookings.size());
+        return bookings.stream().map(BookingMapper::toBookingDtoOut).collect(toList());
     }
 
     @Override
     public BookingDtoOut approve(long bookingId, Boolean isApproved, long userId) {
+        long itemId = bookingRepository.findItemIdById(bookingId).orElseThrow(() ->
+                new EntityNotFoundException(String.format("Объект класса %s не найден", Booking.class)));
+        itemLockStripes.lockUntilCompletion(itemId);
         Booking booking = getById(bookingId);
-        Item item = getItem(booking.getItem().getId());
+        Item item = booking.getItem();
 
         if (booking.getStatus() != BookingStatusEnum.WAITING) {
             throw new ItemIsNotAvailableException("Вещь уже забронирована");
@@ -80,8 +112,18 @@ public class BookingServiceImpl implements BookingService {
         if (booking.getItem().getOwner().getId() != userId) {
             throw new IllegalViewAndUpdateException("Подтвердить бронирование может только собственник вещи");
         }
+        if (isApproved && bookingIntervalIndex.hasOverlap(item.getId(), booking.getStart(), booking.getEnd(),
+                booking.getId())) {
+            throw new ItemIsNotAvailableException("Вещь уже забронирована на указанные даты");
+        }
         BookingStatusEnum newBookingStatus = isApproved ? BookingStatusEnum.APPROVED : BookingStatusEnum.REJECTED;
         booking.setStatus(newBookingStatus);
+        if (isApproved) {
+            bookingIntervalIndex.register(booking);
+            lastNextBookingIndex.register(booking);
+        } else {
+            bookingIntervalIndex.unregister(booking);
+        }
         log.info("Бронирование с идентификатором {} обновлено", booking.getId());
         return BookingMapper.toBookingDtoOut(booking);
 
@@ -102,14 +144,9 @@ public class BookingServiceImpl implements BookingService {
 
     @Transactional(readOnly = true)
     public List<BookingDtoOut> getAllByBooker(Integer from, Integer size, String state, long bookerId) {
-        BookingStateEnum bookingState;
-        try {
-            bookingState = BookingStateEnum.valueOf(state);
-        } catch (IllegalArgumentException e) {
-            throw new UnsupportedStatusException("Unknown state: UNSUPPORTED_STATUS");
-        }
-        getUser(bookerId);
-        List<Booking> bookings;
+        BookingStateEnum bookingState = toState(state);
+        checkUserExists(bookerId);
+        List<BookingDtoOut> bookings;
         Pageable pageable = PageRequest.of(from / size, size, Sort.by("start").descending());
         switch (bookingState) {
             case ALL:
@@ -133,19 +170,14 @@ public class BookingServiceImpl implements BookingService {
             default:
                 throw new UnsupportedStatusException("Unknown state: UNSUPPORTED_STATUS");
         }
-        return bookings.stream().map(BookingMapper::toBookingDtoOut).collect(Collectors.toList());
+        return bookings;
     }
 
     @Transactional(readOnly = true)
     public List<BookingDtoOut> getAllByOwner(Integer from, Integer size, String state, long ownerId) {
-        BookingStateEnum bookingState;
-        try {
-            bookingState = BookingStateEnum.valueOf(state);
-        } catch (IllegalArgumentException e) {
-            throw new UnsupportedStatusException("Unknown state: UNSUPPORTED_STATUS");
-        }
-        getUser(ownerId);
-        List<Booking> bookings;
+        BookingStateEnum bookingState = toState(state);
+        checkUserExists(ownerId);
+        List<BookingDtoOut> bookings;
         Pageable pageable = PageRequest.of(from / size, size, Sort.by("start").descending());
         switch (bookingState) {
             case ALL:
@@ -169,7 +201,95 @@ public class BookingServiceImpl implements BookingService {
             default:
                 throw new UnsupportedStatusException("Unknown state: UNSUPPORTED_STATUS");
         }
-        return bookings.stream().map(BookingMapper::toBookingDtoOut).collect(Collectors.toList());
+        return bookings;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<BookingDtoOut> getAllByBookerAfter(KeysetCursor cursor, Integer size, String state, long bookerId) {
+        BookingStateEnum bookingState = toState(state);
+        checkUserExists(bookerId);
+        List<BookingDtoOut> bookings;
+        LocalDateTime start = cursor.getStart();
+        long id = cursor.getId();
+        Pageable pageable = PageRequest.of(0, size, KEYSET_ORDER);
+        switch (bookingState) {
+            case ALL:
+                bookings = bookingRepository.findKeysetByBookerId(bookerId, start, id, pageable);
+                break;
+            case CURRENT:
+                bookings = bookingRepository.findKeysetByBookerIdAndStateCurrent(bookerId, start, id, pageable);
+                break;
+            case PAST:
+                bookings = bookingRepository.findKeysetByBookerIdAndStatePast(bookerId, start, id, pageable);
+                break;
+            case FUTURE:
+                bookings = bookingRepository.findKeysetByBookerIdAndStateFuture(bookerId, start, id, pageable);
+                break;
+            case WAITING:
+                bookings = bookingRepository.findKeysetByBookerIdAndStatus(bookerId, BookingStatusEnum.WAITING,
+                        start, id, pageable);
+                break;
+            case REJECTED:
+                bookings = bookingRepository.findKeysetByBookerIdAndStatus(bookerId, BookingStatusEnum.REJECTED,
+                        start, id, pageable);
+                break;
+            default:
+                throw new UnsupportedStatusException("Unknown state: UNSUPPORTED_STATUS");
+        }
+        return bookings;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<BookingDtoOut> getAllByOwnerAfter(KeysetCursor cursor, Integer size, String state, long ownerId) {
+        BookingStateEnum bookingState = toState(state);
+        checkUserExists(ownerId);
+        List<BookingDtoOut> bookings;
+        LocalDateTime start = cursor.getStart();
+        long id = cursor.getId();
+        Pageable pageable = PageRequest.of(0, size, KEYSET_ORDER);
+        switch (bookingState) {
+            case ALL:
+                bookings = bookingRepository.findKeysetByOwnerId(ownerId, start, id, pageable);
+                break;
+            case CURRENT:
+                bookings = bookingRepository.findKeysetByOwnerIdAndStateCurrent(ownerId, start, id, pageable);
+                break;
+            case PAST:
+                bookings = bookingRepository.findKeysetByOwnerIdAndStatePast(ownerId, start, id, pageable);
+                break;
+            case FUTURE:
+                bookings = bookingRepository.findKeysetByOwnerIdAndStateFuture(ownerId, start, id, pageable);
+                break;
+            case WAITING:
+                bookings = bookingRepository.findKeysetByOwnerIdAndStatus(ownerId, BookingStatusEnum.WAITING,
+                        start, id, pageable);
+                break;
+            case REJECTED:
+                bookings = bookingRepository.findKeysetByOwnerIdAndStatus(ownerId, BookingStatusEnum.REJECTED,
+                        start, id, pageable);
+                break;
+            default:
+                throw new UnsupportedStatusException("Unknown state: UNSUPPORTED_STATUS");
+        }
+        return bookings;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public BookingExport exportByBooker(long bookerId) {
+        log.info("Выгрузка бронирований пользователя {}", bookerId);
+        checkUserExists(bookerId);
+        return out -> bookingExporter.writeByBooker(bookerId, out);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public BookingExport exportByOwner(long ownerId) {
+        log.info("Выгрузка бронирований вещей владельца {}", ownerId);
+        checkUserExists(ownerId);
+        return out -> bookingExporter.writeByOwner(ownerId, out);
     }
 
     @Transactional(readOnly = true)
@@ -179,11 +299,99 @@ public class BookingServiceImpl implements BookingService {
                 new EntityNotFoundException(String.format("Объект класса %s не найден", Booking.class)));
     }
 
+    private void checkBookable(BookingDtoIn bookingDtoIn, Item item, long userId) {
+        if (bookingDtoIn.getStart() == null) {
+            throw new InvalidBookingDateException("Дата начала бронирования не может быть null.");
+        }
+
+        if (bookingDtoIn.getEnd() == null) {
+            throw new InvalidBookingDateException("Дата окончания бронирования не может быть null.");
+        }
+
+        if (!item.getAvailable()) {
+            throw new ItemIsNotAvailableException("Вещь недоступна для брони");
+        }
+        if (Long.valueOf(userId).equals(item.getOwner().getId())) {
+            throw new NotAvailableToBookOwnItemsException("Функция бронировать собственную вещь отсутствует");
+        }
+
+        if (bookingDtoIn.getStart().isBefore(LocalDateTime.now())) {
+            throw new InvalidBookingDateException("Дата начала бронирования не может быть в прошлом.");
+        }
+        if (bookingDtoIn.getEnd().isBefore(bookingDtoIn.getStart())) {
+            throw new InvalidBookingDateException("Дата окончания бронирования должна быть позже даты начала.");
+        }
+        if (bookingIntervalIndex.hasOverlap(item.getId(), bookingDtoIn.getStart(), bookingDtoIn.getEnd())) {
+            throw new ItemIsNotAvailableException("Вещь уже забронирована на указанные даты");
+        }
+    }
+
+    /**
+     * The interval index only learns about the batch after commit, so bookings of one item inside
+     * the batch are checked against each other here: sorted by start, each must begin no earlier
+     * than the latest end seen so far.
+     */
+    private void checkNoOverlapWithinBatch(List<Booking> bookings) {
+        Map<Long, List<Booking>> bookingsByItem = bookings.stream()
+                .collect(groupingBy(booking -> booking.getItem().getId()));
+        for (List<Booking> itemBookings : bookingsByItem.values()) {
+            itemBookings.sort(Comparator.comparing(Booking::getStart));
+            LocalDateTime reachedEnd = null;
+            for (Booking booking : itemBookings) {
+                if (reachedEnd != null && reachedEnd.isAfter(booking.getStart())) {
+                    throw new ItemIsNotAvailableException("Вещь уже забронирована на указанные даты");
+                }
+                if (reachedEnd == null || booking.getEnd().isAfter(reachedEnd)) {
+                    reachedEnd = booking.getEnd();
+                }
+            }
+        }
+    }
+
+    /**
+     * The interval index and the stripe locks only see this instance. On PostgreSQL the
+     * bookings_no_overlap_excl constraint rejects an overlap admitted by another instance, and the
+     * flush surfaces it here rather than at commit.
+     */
+    private void insert(Runnable write) {
+        try {
+            write.run();
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Пересечение бронирований отклонено базой данных: {}", e.getMessage());
+            throw new ItemIsNotAvailableException("Вещь уже забронирована на указанные даты");
+        }
+    }
+
+    private Booking toNewBooking(BookingDtoIn bookingDtoIn, Item item, User booker) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        return BookingMapper.toBooking(bookingDtoIn, booking);
+    }
+
+    private void register(Booking booking) {
+        bookingIntervalIndex.register(booking);
+    }
+
+    private BookingStateEnum toState(String state) {
+        try {
+            return BookingStateEnum.valueOf(state);
+        } catch (IllegalArgumentException e) {
+            throw new UnsupportedStatusException("Unknown state: UNSUPPORTED_STATUS");
+        }
+    }
+
     private User getUser(long userId) {
         return userRepository.findById(userId).orElseThrow(() ->
                 new EntityNotFoundException(String.format("Объект класса %s не найден", User.class)));
     }
 
+    private void checkUserExists(long userId) {
+        if (!userExistenceCache.exists(userId)) {
+            throw new EntityNotFoundException(String.format("Объект класса %s не найден", User.class));
+        }
+    }
+
     private Item getItem(long itemId) {
         return itemRepository.findById(itemId).orElseThrow(() ->
                 new EntityNotFoundException(String.format("Объект класса %s не найден", Item.class)));
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of locks shared by items through hashing of the item id: bookings of one item are
+ * serialized while bookings of unrelated items almost never contend for the same stripe.
+ * A lock is held until the surrounding transaction completes, so the next writer of the item
+ * sees committed state, including the interval index updated after commit. The locks are per
+ * instance; writers on other instances are serialized only by the database.
+ */
+@Component
+public class ItemLockStripes {
+    private final ReentrantLock[] stripes;
+
+    public ItemLockStripes(@Value("${shareit.booking.lock-stripes:64}") int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(stripeCount, 1) * 2 - 1);
+        stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public void lockUntilCompletion(long itemId) {
+        checkTransaction();
+        lockUntilCompletion(stripes[indexFor(itemId)]);
+    }
+
+    /**
+     * Locks the stripes of all given items. Stripes are taken once each and in index order, so two
+     * transactions locking overlapping sets of items cannot deadlock on each other.
+     */
+    public void lockAllUntilCompletion(Collection<Long> itemIds) {
+        checkTransaction();
+        itemIds.stream()
+                .mapToInt(this::indexFor)
+                .distinct()
+                .sorted()
+                .forEach(index -> lockUntilCompletion(stripes[index]));
+    }
+
+    private void checkTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Блокировка вещи возможна только внутри транзакции");
+        }
+    }
+
+    private void lockUntilCompletion(ReentrantLock lock) {
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    private int indexFor(long itemId) {
+        int hash = Long.hashCode(itemId);
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.booking.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.ApprovedBooking;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.enums.BookingStatusEnum;
+import ru.practicum.shareit.utils.TransactionHooks;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read model of the last and next approved booking of each item. Every item keeps its current
+ * last booking plus the approved bookings that have not started yet; when the earliest of them
+ * starts it is promoted to last on the next read, so time boundaries need no scheduled job and
+ * item views never scan the booking history.
+ * <p>
+ * Like {@link BookingIntervalIndex}, the index lives in one server instance and only learns about
+ * approvals committed through it, and entries are never removed since an approval is final. With
+ * several instances, or after rows are written around the service, it is stale until
+ * {@link #warmUp()} rebuilds it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LastNextBookingIndex {
+    private static final Comparator<BookingDtoShort> START_ORDER =
+            Comparator.comparing(BookingDtoShort::getStart).thenComparingLong(BookingDtoShort::getId);
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, ItemBookings> bookingsByItem = new ConcurrentHashMap<>();
+
+    /**
+     * Rebuilds the index from the approved bookings in the database.
+     */
+    @PostConstruct
+    public void warmUp() {
+        bookingsByItem.clear();
+        LocalDateTime now = LocalDateTime.now();
+        List<ApprovedBooking> last = bookingRepository.findLastByStatusPerItem(BookingStatusEnum.APPROVED, now);
+        List<ApprovedBooking> upcoming = bookingRepository.findByStatusStartingAfter(BookingStatusEnum.APPROVED, now);
+        last.forEach(this::add);
+        upcoming.forEach(this::add);
+        log.info("Индекс последних и ближайших бронирований заполнен, вещей: {}", bookingsByItem.size());
+    }
+
+    public BookingDtoShort getLast(long itemId) {
+        ItemBookings bookings = bookingsByItem.get(itemId);
+        return bookings == null ? null : bookings.last(LocalDateTime.now());
+    }
+
+    public BookingDtoShort getNext(long itemId) {
+        ItemBookings bookings = bookingsByItem.get(itemId);
+        return bookings == null ? null : bookings.next(LocalDateTime.now());
+    }
+
+    public void register(Booking booking) {
+        ApprovedBooking approved = new ApprovedBooking(booking.getId(), booking.getItem().getId(),
+                booking.getStart(), booking.getEnd(), booking.getBooker().getId());
+        TransactionHooks.afterCommit(() -> add(approved));
+    }
+
+    private void add(ApprovedBooking approved) {
+        bookingsByItem.computeIfAbsent(approved.getItemId(), id -> new ItemBookings())
+                .add(new BookingDtoShort(approved.getBookingId(), approved.getStart(), approved.getEnd(),
+                        BookingStatusEnum.APPROVED, approved.getBookerId()));
+    }
+
+    private static final class ItemBookings {
+        private final NavigableSet<BookingDtoShort> upcoming = new TreeSet<>(START_ORDER);
+        private BookingDtoShort last;
+
+        synchronized void add(BookingDtoShort booking) {
+            upcoming.add(booking);
+        }
+
+        synchronized BookingDtoShort last(LocalDateTime now) {
+            promoteStarted(now);
+            return last;
+        }
+
+        synchronized BookingDtoShort next(LocalDateTime now) {
+            promoteStarted(now);
+            return upcoming.isEmpty() ? null : upcoming.first();
+        }
+
+        private void promoteStarted(LocalDateTime now) {
+            while (!upcoming.isEmpty() && !upcoming.first().getStart().isAfter(now)) {
+                BookingDtoShort started = upcoming.pollFirst();
+                if (last == null || started.getEnd().isAfter(last.getEnd())) {
+                    last = started;
+                }
+            }
+        }
+    }
+}
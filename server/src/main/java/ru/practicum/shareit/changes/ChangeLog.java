@@ -0,0 +1,58 @@
+package ru.practicum.shareit.changes;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.changes.dto.ChangesDto;
+import ru.practicum.shareit.utils.TransactionHooks;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bounded log of committed changes, numbered by a version that only grows. Readers that cache
+ * responses ask for the tags changed since the version they saw last. When they come from another
+ * epoch (the server restarted) or fell behind the retained window, the answer is a reset and
+ * everything they hold has to be dropped.
+ */
+@Component
+public class ChangeLog {
+    public static final String ITEMS = "items";
+    public static final String REQUESTS = "requests";
+
+    private final String epoch = UUID.randomUUID().toString();
+    private final String[] tags;
+    private long version;
+
+    public ChangeLog(@Value("${shareit.changes.capacity:4096}") int capacity) {
+        this.tags = new String[capacity];
+    }
+
+    public static String user(long userId) {
+        return "users/" + userId;
+    }
+
+    public void record(String... changedTags) {
+        TransactionHooks.afterCommit(() -> append(changedTags));
+    }
+
+    public synchronized ChangesDto since(String clientEpoch, long clientVersion) {
+        long oldest = Math.max(0, version - tags.length);
+        if (!epoch.equals(clientEpoch) || clientVersion < oldest || clientVersion > version) {
+            return new ChangesDto(epoch, version, true, Collections.emptySet());
+        }
+        Set<String> changed = new LinkedHashSet<>();
+        for (long v = clientVersion; v < version; v++) {
+            changed.add(tags[(int) (v % tags.length)]);
+        }
+        return new ChangesDto(epoch, version, false, changed);
+    }
+
+    private synchronized void append(String[] changedTags) {
+        for (String tag : changedTags) {
+            tags[(int) (version % tags.length)] = tag;
+            version++;
+        }
+    }
+}
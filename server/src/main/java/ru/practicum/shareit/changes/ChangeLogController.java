@@ -0,0 +1,21 @@
+package ru.practicum.shareit.changes;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.changes.dto.ChangesDto;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping(path = "/internal/changes")
+public class ChangeLogController {
+    private final ChangeLog changeLog;
+
+    @GetMapping
+    public ChangesDto getChanges(@RequestParam(defaultValue = "") String epoch,
+                                 @RequestParam(defaultValue = "0") long since) {
+        return changeLog.since(epoch, since);
+    }
+}
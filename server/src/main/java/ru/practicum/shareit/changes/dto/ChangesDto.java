@@ -0,0 +1,15 @@
+package ru.practicum.shareit.changes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Set;
+
+@Data
+@AllArgsConstructor
+public class ChangesDto {
+    private String epoch;
+    private long version;
+    private boolean reset;
+    private Set<String> tags;
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.springframework.boot.convert.DurationStyle;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Second-level cache regions backed by Caffeine, bounded by size and time since the last write.
+ * Every session factory gets its own cache manager: Hibernate closes the manager on shutdown, and
+ * one shared through the provider would be closed under every other factory of the same JVM.
+ */
+public class EntityCacheRegionFactory extends JCacheRegionFactory {
+    public static final String MAX_SIZE = "shareit.entity-cache.max-size";
+    public static final String TTL = "shareit.entity-cache.ttl";
+
+    private long maxSize;
+    private Duration ttl;
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    protected CacheManager resolveCacheManager(SessionFactoryOptions settings, Map properties) {
+        maxSize = Long.parseLong(setting(properties, MAX_SIZE, "10000"));
+        ttl = DurationStyle.detectAndParse(setting(properties, TTL, "10m"));
+        return Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("shareit:entity-cache:" + UUID.randomUUID()), getClass().getClassLoader());
+    }
+
+    private static String setting(Map<?, ?> properties, String name, String defaultValue) {
+        Object value = properties.get(name);
+        return value == null ? defaultValue : String.valueOf(value);
+    }
+
+    @Override
+    protected Cache<Object, Object> createCache(String regionName) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        return getCacheManager().createCache(regionName, configuration);
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * Strong ETags for the read endpoints, computed from the response body. Item and booking views
+ * include last/next bookings and comments, which change without bumping the item's own version,
+ * so only the body itself tells whether a representation changed. A GET whose If-None-Match
+ * matches is answered with 304 and no body.
+ */
+@Configuration
+public class EtagConfig {
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+        ShallowEtagHeaderFilter filter = new ShallowEtagHeaderFilter();
+        filter.setWriteWeakETag(false);
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/items", "/items/*", "/bookings", "/bookings/*", "/requests", "/requests/*",
+                "/users", "/users/*");
+        return registration;
+    }
+}
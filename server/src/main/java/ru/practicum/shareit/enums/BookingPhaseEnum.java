@@ -0,0 +1,16 @@
+package ru.practicum.shareit.enums;
+
+import java.time.LocalDateTime;
+
+public enum BookingPhaseEnum {
+    FUTURE,
+    CURRENT,
+    PAST;
+
+    public static BookingPhaseEnum at(LocalDateTime start, LocalDateTime end, LocalDateTime moment) {
+        if (moment.isBefore(start)) {
+            return FUTURE;
+        }
+        return moment.isAfter(end) ? PAST : CURRENT;
+    }
+}
@@ -1,15 +1,49 @@
 package ru.practicum.shareit.item.comment;
 
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
-import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.comment.dto.CommentCount;
+import ru.practicum.shareit.item.comment.dto.CommentDtoOut;
+import ru.practicum.shareit.item.comment.dto.ItemCommentView;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Integer> {
-    List<Comment> findAllByItemId(long itemId);
+    String DTO_OUT_SELECT = "SELECT new ru.practicum.shareit.item.comment.dto.CommentDtoOut(c.id, c.text, a.name, c.created) " +
+            "FROM Comment c JOIN c.author a ";
 
-    List<Comment> findByItemIn(List<Item> allByOwnerId, Sort created);
-}
\ No newline at end of file
+    @Query(DTO_OUT_SELECT +
+            "WHERE c.item.id = ?1")
+    List<CommentDtoOut> findLatestByItemId(long itemId, Pageable pageable);
+
+    @Query(DTO_OUT_SELECT +
+            "WHERE c.item.id = ?1 " +
+            "AND (c.created, c.id) < (?2, ?3)")
+    List<CommentDtoOut> findKeysetByItemId(long itemId, LocalDateTime created, long id, Pageable pageable);
+
+    /**
+     * The latest {@code limit} comments of every given item, newest first, in one round trip.
+     */
+    @Query(value = "SELECT t.item_id AS itemId, t.id AS id, t.text AS text, t.author_name AS authorName, " +
+            "t.created AS created FROM (" +
+            "SELECT c.item_id, c.id, c.text, u.name AS author_name, c.created, " +
+            "ROW_NUMBER() OVER (PARTITION BY c.item_id ORDER BY c.created DESC, c.id DESC) AS rn " +
+            "FROM comments c JOIN users u ON u.id = c.author_id " +
+            "WHERE c.item_id IN ?1) t " +
+            "WHERE t.rn <= ?2 " +
+            "ORDER BY t.item_id, t.created DESC, t.id DESC", nativeQuery = true)
+    List<ItemCommentView> findLatestByItemIdIn(Collection<Long> itemIds, int limit);
+
+    long countByItemId(long itemId);
+
+    @Query("SELECT new ru.practicum.shareit.item.comment.dto.CommentCount(c.item.id, COUNT(c)) " +
+            "FROM Comment c " +
+            "WHERE c.item.id IN ?1 " +
+            "GROUP BY c.item.id")
+    List<CommentCount> countByItemIdIn(Collection<Long> itemIds);
+}
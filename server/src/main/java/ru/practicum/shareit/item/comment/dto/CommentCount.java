@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.comment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CommentCount {
+    private long itemId;
+    private long count;
+}
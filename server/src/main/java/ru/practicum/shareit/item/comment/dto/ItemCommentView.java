@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.comment.dto;
+
+import java.time.LocalDateTime;
+
+public interface ItemCommentView {
+    Long getItemId();
+
+    Long getId();
+
+    String getText();
+
+    String getAuthorName();
+
+    LocalDateTime getCreated();
+}
@@ -4,6 +4,7 @@ import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.dto.CommentDtoIn;
 import ru.practicum.shareit.item.comment.dto.CommentDtoOut;
+import ru.practicum.shareit.item.comment.dto.ItemCommentView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -18,6 +19,13 @@ public class CommentMapper {
                 comment.getCreated());
     }
 
+    public CommentDtoOut toCommentDtoOut(ItemCommentView comment) {
+        return new CommentDtoOut(comment.getId(),
+                comment.getText(),
+                comment.getAuthorName(),
+                comment.getCreated());
+    }
+
     public Comment toComment(CommentDtoIn commentDtoIn, Item item, User author) {
         Comment comment = new Comment();
         comment.setItem(item);
@@ -1,22 +1,29 @@
 package ru.practicum.shareit.item.controller;
 
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.comment.dto.CommentDtoIn;
 import ru.practicum.shareit.item.comment.dto.CommentDtoOut;
 import ru.practicum.shareit.item.dto.ItemDtoIn;
 import ru.practicum.shareit.item.dto.ItemDtoOut;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.utils.KeysetCursor;
 
 
 import java.util.List;
 
 @Slf4j
+@Validated
 @RequiredArgsConstructor
 @RestController
 @RequestMapping("/items")
 public class ItemController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final ItemService itemService;
 
     @PostMapping
@@ -61,4 +68,19 @@ public class ItemController {
         log.info("POST / comment / item {}", itemId);
         return itemService.saveNewComment(itemId, commentDtoIn, userId);
     }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentDtoOut>> getComments(@PathVariable long itemId,
+                                                           @RequestParam(defaultValue = "10") @Positive Integer size,
+                                                           @RequestParam(required = false) String cursor) {
+        log.info("GET / comments / item {}", itemId);
+        List<CommentDtoOut> comments = itemService.getCommentsAfter(itemId, KeysetCursor.decode(cursor), size);
+        if (comments.size() < size) {
+            return ResponseEntity.ok(comments);
+        }
+        CommentDtoOut last = comments.get(comments.size() - 1);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, new KeysetCursor(last.getCreated(), last.getId()).encode())
+                .body(comments);
+    }
 }
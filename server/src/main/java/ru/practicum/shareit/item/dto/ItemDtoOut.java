@@ -18,6 +18,8 @@ public class ItemDtoOut {
     private BookingDtoShort lastBooking;
     private BookingDtoShort nextBooking;
     private List<CommentDtoOut> comments;
+    private long commentsCount;
+    private String commentsCursor;
     private UserDtoShort owner;
     private Long requestId;
 
@@ -1,23 +1,32 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    @EntityGraph(attributePaths = "owner")
     List<Item> findAllByOwnerId(long userId, Pageable pageable);
 
+    @Override
+    @EntityGraph(attributePaths = "owner")
+    List<Item> findAllById(Iterable<Long> ids);
+
+    @EntityGraph(attributePaths = "owner")
     @Query("SELECT i FROM Item i " +
-            "WHERE (UPPER(i.name) LIKE UPPER(CONCAT('%', ?1, '%')) " +
-            "OR UPPER(i.description) LIKE UPPER(CONCAT('%', ?1, '%'))) " +
-            "AND i.available = true")
+            "WHERE (UPPER(i.name) LIKE UPPER(CONCAT('%', ?1, '%')) ESCAPE '!' " +
+            "OR UPPER(i.description) LIKE UPPER(CONCAT('%', ?1, '%')) ESCAPE '!') " +
+            "AND i.available = true " +
+            "ORDER BY i.id")
     List<Item> search(String text, Pageable pageable);
 
-
-    List<Item> findAllByRequestId(long requestId);
+    @EntityGraph(attributePaths = "owner")
+    List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
 }
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+/**
+ * Delegates search to the database. On PostgreSQL the LIKE predicates are served by the
+ * pg_trgm GIN indexes from the PostgreSQL-only migrations. Wildcards in the query are escaped,
+ * so '%' and '_' match themselves. This is the default engine, as every instance sees the same rows.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "database", matchIfMissing = true)
+@RequiredArgsConstructor
+public class DatabaseItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        return itemRepository.search(escapeLike(text), PageRequest.of(from / size, size));
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.item.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.utils.TransactionHooks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Trigram inverted index over item names and descriptions. A query of three or more characters
+ * only visits the items that contain every trigram of the query, and each candidate is then
+ * checked with a plain substring match. Texts are folded with upper case and the query is taken
+ * literally, like the escaped LIKE of {@link DatabaseItemSearchEngine}; the one difference is that
+ * Java folds by Unicode rules while UPPER follows the database locale, which only matters for a
+ * few characters such as 'ß'. Shorter queries have no trigrams and fall back to scanning the
+ * folded texts.
+ * The index is per instance: it is built by warm-up and then sees only items written through this
+ * server, so it is meant for a single instance and is not enabled by default.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+@RequiredArgsConstructor
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+    private static final int GRAM = 3;
+
+    private final ItemRepository itemRepository;
+    private final ConcurrentNavigableMap<Long, IndexedItem> documents = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void warmUp() {
+        List<Item> items = itemRepository.findAll();
+        items.forEach(item -> put(IndexedItem.of(item)));
+        log.info("Поисковый индекс вещей заполнен, вещей: {}", items.size());
+    }
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        String query = fold(text);
+        List<Long> ids = candidates(query).stream()
+                .filter(id -> {
+                    IndexedItem document = documents.get(id);
+                    return document != null && document.matches(query);
+                })
+                .skip((long) (from / size) * size)
+                .limit(size)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, Item> items = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream().map(items::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    @Override
+    public void index(Item item) {
+        IndexedItem document = IndexedItem.of(item);
+        TransactionHooks.afterCommit(() -> put(document));
+    }
+
+    private Collection<Long> candidates(String query) {
+        if (query.length() < GRAM) {
+            return documents.keySet();
+        }
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : trigrams(query)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null || ids.isEmpty()) {
+                return Collections.emptyList();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> smallest = lists.get(0);
+        List<Set<Long>> others = lists.subList(1, lists.size());
+        return smallest.stream()
+                .filter(id -> others.stream().allMatch(ids -> ids.contains(id)))
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private synchronized void put(IndexedItem document) {
+        Set<String> grams = document.grams();
+        grams.forEach(gram -> postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet())
+                .add(document.getId()));
+        IndexedItem previous = documents.put(document.getId(), document);
+        if (previous != null) {
+            for (String gram : previous.grams()) {
+                if (!grams.contains(gram)) {
+                    postings.computeIfPresent(gram, (key, ids) -> {
+                        ids.remove(document.getId());
+                        return ids.isEmpty() ? null : ids;
+                    });
+                }
+            }
+        }
+    }
+
+    private static String fold(String text) {
+        return text.toUpperCase(Locale.ROOT);
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    @Value
+    private static class IndexedItem {
+        long id;
+        String name;
+        String description;
+        boolean available;
+
+        static IndexedItem of(Item item) {
+            return new IndexedItem(item.getId(), fold(item.getName()), fold(item.getDescription()),
+                    Boolean.TRUE.equals(item.getAvailable()));
+        }
+
+        boolean matches(String query) {
+            return available && (name.contains(query) || description.contains(query));
+        }
+
+        Set<String> grams() {
+            Set<String> grams = InMemoryItemSearchEngine.trigrams(name);
+            grams.addAll(InMemoryItemSearchEngine.trigrams(description));
+            return grams;
+        }
+    }
+}
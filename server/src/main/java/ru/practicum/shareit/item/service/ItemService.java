@@ -4,6 +4,7 @@ import ru.practicum.shareit.item.comment.dto.CommentDtoIn;
 import ru.practicum.shareit.item.comment.dto.CommentDtoOut;
 import ru.practicum.shareit.item.dto.ItemDtoIn;
 import ru.practicum.shareit.item.dto.ItemDtoOut;
+import ru.practicum.shareit.utils.KeysetCursor;
 
 import java.util.List;
 
@@ -19,4 +20,6 @@ public interface ItemService {
     ItemDtoOut updateItem(long itemId, ItemDtoIn itemDtoIn, long userId);
 
     CommentDtoOut saveNewComment(long itemId, CommentDtoIn commentDtoIn, long userId);
+
+    List<CommentDtoOut> getCommentsAfter(long itemId, KeysetCursor cursor, Integer size);
 }
@@ -6,17 +6,18 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.dto.BookingMapper;
-import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
-import ru.practicum.shareit.enums.BookingStatusEnum;
+import ru.practicum.shareit.booking.service.LastNextBookingIndex;
+import ru.practicum.shareit.changes.ChangeLog;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.NotBookerException;
 import ru.practicum.shareit.exception.NotOwnerException;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.CommentRepository;
 import ru.practicum.shareit.item.comment.dto.CommentDtoIn;
+import ru.practicum.shareit.item.comment.dto.CommentCount;
 import ru.practicum.shareit.item.comment.dto.CommentDtoOut;
+import ru.practicum.shareit.item.comment.dto.ItemCommentView;
 import ru.practicum.shareit.item.comment.mapper.CommentMapper;
 import ru.practicum.shareit.item.dto.ItemDtoIn;
 import ru.practicum.shareit.item.dto.ItemDtoOut;
@@ -27,6 +28,8 @@ import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
+import ru.practicum.shareit.utils.KeysetCursor;
 
 
 import java.time.LocalDateTime;
@@ -34,12 +37,11 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
+import static java.util.stream.Collectors.toMap;
 import static java.util.stream.Collectors.toList;
-import static org.springframework.data.domain.Sort.Direction.ASC;
 import static org.springframework.data.domain.Sort.Direction.DESC;
 
 @Slf4j
@@ -47,11 +49,18 @@ import static org.springframework.data.domain.Sort.Direction.DESC;
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final int INLINE_COMMENTS = 10;
+    private static final Sort COMMENT_ORDER = Sort.by(DESC, "created", "id");
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final BookingRepository bookingRepository;
+    private final LastNextBookingIndex lastNextBookingIndex;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository requestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ChangeLog changeLog;
 
     @Override
     public ItemDtoOut saveNewItem(ItemDtoIn itemDtoIn, long userId) {
@@ -64,7 +73,14 @@ public class ItemServiceImpl implements ItemService {
             item.setRequest(requestRepository.findById(requestId).orElseThrow(() ->
                     new EntityNotFoundException(String.format("Объект класса %s не найден", ItemRequest.class))));
         }
-        return ItemMapper.toDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        itemSearchEngine.index(savedItem);
+        if (requestId != null) {
+            changeLog.record(ChangeLog.ITEMS, ChangeLog.REQUESTS);
+        } else {
+            changeLog.record(ChangeLog.ITEMS);
+        }
+        return ItemMapper.toDto(savedItem);
     }
 
     @Override
@@ -96,6 +112,12 @@ public class ItemServiceImpl implements ItemService {
             throw new NotOwnerException(String.format("Пользователь с id %s не является собственником %s",
                     userId, name));
         }
+        itemSearchEngine.index(item);
+        if (item.getRequest() != null) {
+            changeLog.record(ChangeLog.ITEMS, ChangeLog.REQUESTS);
+        } else {
+            changeLog.record(ChangeLog.ITEMS);
+        }
         return ItemMapper.toDto(item);
     }
 
@@ -110,7 +132,7 @@ public class ItemServiceImpl implements ItemService {
     @Transactional(readOnly = true)
     public List<ItemDtoOut> getItemsByOwner(Integer from, Integer size, long userId) {
         log.info("Получение вещи по владельцу {}", userId);
-        getUser(userId);
+        checkUserExists(userId);
         List<Item> items = itemRepository.findAllByOwnerId(userId, PageRequest.of(from / size, size,
                 Sort.by("id").ascending()));
         return addBookingsAndCommentsForList(items);
@@ -123,7 +145,7 @@ public class ItemServiceImpl implements ItemService {
         if (text.isBlank()) {
             return Collections.emptyList();
         }
-        return itemRepository.search(text, PageRequest.of(from / size, size)).stream()
+        return itemSearchEngine.search(text, from, size).stream()
                 .map(ItemMapper::toDto).collect(toList());
     }
 
@@ -139,68 +161,69 @@ public class ItemServiceImpl implements ItemService {
         return CommentMapper.toCommentDtoOut(comment);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public List<CommentDtoOut> getCommentsAfter(long itemId, KeysetCursor cursor, Integer size) {
+        log.info("Получение отзывов о вещи {}", itemId);
+        getItem(itemId);
+        return commentRepository.findKeysetByItemId(itemId, cursor.getStart(), cursor.getId(),
+                PageRequest.of(0, size, COMMENT_ORDER));
+    }
+
     private ItemDtoOut addBookingsAndComments(Item item, long userId) {
         ItemDtoOut itemDtoOut = ItemMapper.toDto(item);
 
-        LocalDateTime thisMoment = LocalDateTime.now();
         if (itemDtoOut.getOwner().getId() == userId) {
-            itemDtoOut.setLastBooking(bookingRepository
-                    .findFirstByItemIdAndStartLessThanEqualAndStatus(itemDtoOut.getId(), thisMoment,
-                            BookingStatusEnum.APPROVED, Sort.by(DESC, "end"))
-                    .map(BookingMapper::toBookingDtoShort)
-                    .orElse(null));
-
-            itemDtoOut.setNextBooking(bookingRepository
-                    .findFirstByItemIdAndStartAfterAndStatus(itemDtoOut.getId(), thisMoment,
-                            BookingStatusEnum.APPROVED, Sort.by(ASC, "end"))
-                    .map(BookingMapper::toBookingDtoShort)
-                    .orElse(null));
+            itemDtoOut.setLastBooking(lastNextBookingIndex.getLast(itemDtoOut.getId()));
+            itemDtoOut.setNextBooking(lastNextBookingIndex.getNext(itemDtoOut.getId()));
         }
 
-        itemDtoOut.setComments(commentRepository.findAllByItemId(itemDtoOut.getId())
-                .stream()
-                .map(CommentMapper::toCommentDtoOut)
-                .collect(toList()));
+        List<CommentDtoOut> comments = commentRepository.findLatestByItemId(itemDtoOut.getId(),
+                PageRequest.of(0, INLINE_COMMENTS, COMMENT_ORDER));
+        itemDtoOut.setComments(comments);
+        itemDtoOut.setCommentsCount(comments.size() < INLINE_COMMENTS ? comments.size()
+                : commentRepository.countByItemId(itemDtoOut.getId()));
+        itemDtoOut.setCommentsCursor(commentsCursor(comments, itemDtoOut.getCommentsCount()));
 
         return itemDtoOut;
     }
 
-    private List<ItemDtoOut> addBookingsAndCommentsForList(List<Item> items) {
-        LocalDateTime thisMoment = LocalDateTime.now();
-
-        Map<Item, Booking> itemsWithLastBookings = bookingRepository
-                .findByItemInAndStartLessThanEqualAndStatus(items, thisMoment,
-                        BookingStatusEnum.APPROVED, Sort.by(DESC, "end"))
-                .stream()
-                .collect(Collectors.toMap(Booking::getItem, Function.identity(), (o1, o2) -> o1));
+    // Position after the last inlined comment for /items/{itemId}/comments; null when all are inlined.
+    private static String commentsCursor(List<CommentDtoOut> comments, long commentsCount) {
+        if (comments.isEmpty() || commentsCount <= comments.size()) {
+            return null;
+        }
+        CommentDtoOut last = comments.get(comments.size() - 1);
+        return new KeysetCursor(last.getCreated(), last.getId()).encode();
+    }
 
-        Map<Item, Booking> itemsWithNextBookings = bookingRepository
-                .findByItemInAndStartAfterAndStatus(items, thisMoment,
-                        BookingStatusEnum.APPROVED, Sort.by(ASC, "end"))
+    private List<ItemDtoOut> addBookingsAndCommentsForList(List<Item> items) {
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> itemIds = items.stream().map(Item::getId).collect(toList());
+        Map<Long, List<CommentDtoOut>> itemsWithComments = commentRepository
+                .findLatestByItemIdIn(itemIds, INLINE_COMMENTS)
                 .stream()
-                .collect(Collectors.toMap(Booking::getItem, Function.identity(), (o1, o2) -> o1));
-
-        Map<Item, List<Comment>> itemsWithComments = commentRepository
-                .findByItemIn(items, Sort.by(DESC, "created"))
+                .collect(groupingBy(ItemCommentView::getItemId, mapping(CommentMapper::toCommentDtoOut, toList())));
+        List<Long> truncated = itemsWithComments.entrySet().stream()
+                .filter(entry -> entry.getValue().size() >= INLINE_COMMENTS)
+                .map(Map.Entry::getKey)
+                .collect(toList());
+        Map<Long, Long> commentCounts = truncated.isEmpty() ? Collections.emptyMap() : commentRepository
+                .countByItemIdIn(truncated)
                 .stream()
-                .collect(groupingBy(Comment::getItem, toList()));
+                .collect(toMap(CommentCount::getItemId, CommentCount::getCount));
 
         List<ItemDtoOut> itemDtoOuts = new ArrayList<>();
         for (Item item : items) {
             ItemDtoOut itemDtoOut = ItemMapper.toDto(item);
-            Booking lastBooking = itemsWithLastBookings.get(item);
-            if (itemsWithLastBookings.size() > 0 && lastBooking != null) {
-                itemDtoOut.setLastBooking(BookingMapper.toBookingDtoShort(lastBooking));
-            }
-            Booking nextBooking = itemsWithNextBookings.get(item);
-            if (itemsWithNextBookings.size() > 0 && nextBooking != null) {
-                itemDtoOut.setNextBooking(BookingMapper.toBookingDtoShort(nextBooking));
-            }
-            List<CommentDtoOut> commentDtoOuts = itemsWithComments.getOrDefault(item, Collections.emptyList())
-                    .stream()
-                    .map(CommentMapper::toCommentDtoOut)
-                    .collect(toList());
+            itemDtoOut.setLastBooking(lastNextBookingIndex.getLast(item.getId()));
+            itemDtoOut.setNextBooking(lastNextBookingIndex.getNext(item.getId()));
+            List<CommentDtoOut> commentDtoOuts = itemsWithComments.getOrDefault(item.getId(), Collections.emptyList());
             itemDtoOut.setComments(commentDtoOuts);
+            itemDtoOut.setCommentsCount(commentCounts.getOrDefault(item.getId(), (long) commentDtoOuts.size()));
+            itemDtoOut.setCommentsCursor(commentsCursor(commentDtoOuts, itemDtoOut.getCommentsCount()));
 
             itemDtoOuts.add(itemDtoOut);
         }
@@ -212,6 +235,12 @@ public class ItemServiceImpl implements ItemService {
                 new EntityNotFoundException(String.format("Объект класса %s не найден", User.class)));
     }
 
+    private void checkUserExists(long userId) {
+        if (!userExistenceCache.exists(userId)) {
+            throw new EntityNotFoundException(String.format("Объект класса %s не найден", User.class));
+        }
+    }
+
     private Item getItem(long itemId) {
         return itemRepository.findById(itemId).orElseThrow(() ->
                 new EntityNotFoundException(String.format("Объект класса %s не найден", Item.class)));
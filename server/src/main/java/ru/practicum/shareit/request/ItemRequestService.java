@@ -7,6 +7,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.changes.ChangeLog;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.item.dto.ItemDtoOut;
 import ru.practicum.shareit.item.mapper.ItemMapper;
@@ -16,10 +17,13 @@ import ru.practicum.shareit.request.dto.ItemRequestDtoOut;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.springframework.data.domain.Sort.Direction.DESC;
@@ -31,7 +35,9 @@ import static org.springframework.data.domain.Sort.Direction.DESC;
 public class ItemRequestService {
     private final ItemRequestRepository requestRepository;
     private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final ItemRepository itemRepository;
+    private final ChangeLog changeLog;
 
     @Transactional
     public ItemRequestDtoOut saveNewRequest(ItemRequestDtoIn requestDtoIn, long userId) {
@@ -40,19 +46,21 @@ public class ItemRequestService {
         ItemRequest request = ItemRequestMapper.toItemRequest(requestDtoIn);
         request.setCreated(LocalDateTime.now());
         request.setRequestor(requestor);
-        return ItemRequestMapper.toItemRequestDtoOut(requestRepository.save(request));
+        ItemRequest savedRequest = requestRepository.save(request);
+        changeLog.record(ChangeLog.REQUESTS);
+        return ItemRequestMapper.toItemRequestDtoOut(savedRequest);
     }
 
     public List<ItemRequestDtoOut> getRequestsByRequestor(long userId) {
         log.info("Получение всех запросов по просителю с идентификатором {}", userId);
-        getUser(userId);
+        checkUserExists(userId);
         List<ItemRequest> requests = requestRepository.findAllByRequestorId(userId, Sort.by(DESC, "created"));
         return addItems(requests);
     }
 
     public List<ItemRequestDtoOut> getAllRequests(Integer from, Integer size, long userId) {
         log.info("Получение всех запросов постранично");
-        getUser(userId);
+        checkUserExists(userId);
         Pageable pageable = PageRequest.of(from / size, size, Sort.by("created").descending());
         List<ItemRequest> requests = requestRepository.findAllByRequestorIdIsNot(userId, pageable);
         return addItems(requests);
@@ -60,22 +68,25 @@ public class ItemRequestService {
 
     public ItemRequestDtoOut getRequestById(long requestId, long userId) {
         log.info("Получение запроса по идентификатору {}", requestId);
-        getUser(userId);
-        ItemRequestDtoOut requestDtoOut = ItemRequestMapper.toItemRequestDtoOut(requestRepository.findById(requestId)
-                .orElseThrow(() ->
-                        new EntityNotFoundException(String.format("Объект класса %s не найден", ItemRequest.class))));
-        requestDtoOut.setItems(itemRepository.findAllByRequestId(requestId).stream()
-                .map(ItemMapper::toDto).collect(Collectors.toList()));
-        return requestDtoOut;
+        checkUserExists(userId);
+        ItemRequest request = requestRepository.findById(requestId).orElseThrow(() ->
+                new EntityNotFoundException(String.format("Объект класса %s не найден", ItemRequest.class)));
+        return addItems(List.of(request)).get(0);
     }
 
     private List<ItemRequestDtoOut> addItems(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> requestIds = requests.stream().map(ItemRequest::getId).collect(Collectors.toList());
+        Map<Long, List<ItemDtoOut>> itemsByRequest = itemRepository.findAllByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId(),
+                        Collectors.mapping(ItemMapper::toDto, Collectors.toList())));
+
         final List<ItemRequestDtoOut> requestsOut = new ArrayList<>();
         for (ItemRequest request : requests) {
             ItemRequestDtoOut requestDtoOut = ItemRequestMapper.toItemRequestDtoOut(request);
-            List<ItemDtoOut> items = itemRepository.findAllByRequestId(request.getId()).stream()
-                    .map(ItemMapper::toDto).collect(Collectors.toList());
-            requestDtoOut.setItems(items);
+            requestDtoOut.setItems(itemsByRequest.getOrDefault(request.getId(), Collections.emptyList()));
             requestsOut.add(requestDtoOut);
         }
         return requestsOut;
@@ -85,4 +96,10 @@ public class ItemRequestService {
         return userRepository.findById(userId).orElseThrow(() ->
                 new EntityNotFoundException(String.format("Объект класса %s не найден", User.class)));
     }
+
+    private void checkUserExists(long userId) {
+        if (!userExistenceCache.exists(userId)) {
+            throw new EntityNotFoundException(String.format("Объект класса %s не найден", User.class));
+        }
+    }
 }
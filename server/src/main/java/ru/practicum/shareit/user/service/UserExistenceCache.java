@@ -0,0 +1,39 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utils.TransactionHooks;
+
+import java.time.Duration;
+
+/**
+ * Answers "does this user exist" for read paths that only validate the caller, without loading the
+ * user row. Both answers are cached for a bounded time; creating or deleting a user through
+ * {@link UserServiceImpl} evicts its id once the change commits.
+ */
+@Component
+public class UserExistenceCache {
+    private final UserRepository userRepository;
+    private final Cache<Long, Boolean> existence;
+
+    public UserExistenceCache(UserRepository userRepository,
+                              @Value("${shareit.user-existence.max-size:100000}") long maxSize,
+                              @Value("${shareit.user-existence.ttl:1m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.existence = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public boolean exists(long userId) {
+        return existence.get(userId, userRepository::existsById);
+    }
+
+    public void evict(long userId) {
+        TransactionHooks.afterCommit(() -> existence.invalidate(userId));
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.changes.ChangeLog;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.NotUniqueEmailException;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -16,6 +17,8 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final ChangeLog changeLog;
+    private final UserExistenceCache userExistenceCache;
 
     @Override
     public List<UserDto> findAll() {
@@ -36,6 +39,7 @@ public class UserServiceImpl implements UserService {
         }
         validateUniqueEmail(userDto);
         User user = userRepository.save(UserMapper.toEntity(userDto));
+        userExistenceCache.evict(user.getId());
         return UserMapper.toUserDto(user);
     }
 
@@ -57,17 +61,20 @@ public class UserServiceImpl implements UserService {
             }
             user.setEmail(email);
         }
+        changeLog.record(ChangeLog.user(id));
         return UserMapper.toUserDto(user);
     }
 
     @Override
     public void deleteUserById(long id) {
         userRepository.deleteById(id);
+        userExistenceCache.evict(id);
+        changeLog.record(ChangeLog.user(id), ChangeLog.ITEMS, ChangeLog.REQUESTS);
     }
 
     private void validateUniqueEmail(UserDto userDto) {
-        if (userRepository.findAll().stream().anyMatch(user -> user.getEmail().equals(userDto.getEmail())))   {
-           throw new NotUniqueEmailException(String.format("Пользователь с email %s уже существует", userDto.getEmail()));
+        if (userRepository.existsByEmail(userDto.getEmail())) {
+            throw new NotUniqueEmailException(String.format("Пользователь с email %s уже существует", userDto.getEmail()));
         }
     }
 }
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.utils;
+
+import lombok.Value;
+import ru.practicum.shareit.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque position in a listing ordered by (start DESC, id DESC); comment listings use their
+ * creation time as the start. The next page is everything strictly below the last row already
+ * returned, so every page costs one index range scan.
+ */
+@Value
+public class KeysetCursor {
+    private static final KeysetCursor FIRST = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+            Long.MAX_VALUE);
+
+    LocalDateTime start;
+    long id;
+
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 2) {
+                throw new InvalidCursorException("Некорректный курсор страницы: " + cursor);
+            }
+            return new KeysetCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Некорректный курсор страницы: " + cursor);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((start + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,3 @@
+DROP INDEX IF EXISTS comments_item_created_idx;
+
+CREATE INDEX IF NOT EXISTS comments_item_created_id_idx ON comments (item_id, created DESC, id DESC);
@@ -0,0 +1,5 @@
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON bookings (item_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (owner_id);
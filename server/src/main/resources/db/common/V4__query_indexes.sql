@@ -0,0 +1,13 @@
+CREATE INDEX IF NOT EXISTS bookings_booker_status_start_idx ON bookings (booker_id, status, start_date DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_item_status_start_idx ON bookings (item_id, status, start_date);
+
+CREATE INDEX IF NOT EXISTS bookings_status_end_idx ON bookings (status, end_date);
+
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS comments_item_created_idx ON comments (item_id, created DESC);
+
+CREATE INDEX IF NOT EXISTS requests_requestor_created_idx ON requests (requestor_id, created DESC);
+
+CREATE INDEX IF NOT EXISTS requests_created_idx ON requests (created DESC);
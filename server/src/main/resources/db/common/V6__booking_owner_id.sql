@@ -0,0 +1,8 @@
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS owner_id BIGINT;
+
+UPDATE bookings SET owner_id = (SELECT i.owner_id FROM items i WHERE i.id = bookings.item_id)
+WHERE owner_id IS NULL;
+
+CREATE INDEX IF NOT EXISTS bookings_owner_start_idx ON bookings (owner_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_owner_status_start_idx ON bookings (owner_id, status, start_date DESC);
@@ -0,0 +1,13 @@
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS phase VARCHAR(10);
+
+UPDATE bookings SET phase = CASE
+    WHEN CURRENT_TIMESTAMP < start_date THEN 'FUTURE'
+    WHEN CURRENT_TIMESTAMP > end_date THEN 'PAST'
+    ELSE 'CURRENT' END
+WHERE phase IS NULL;
+
+CREATE INDEX IF NOT EXISTS bookings_booker_phase_start_idx ON bookings (booker_id, phase, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_owner_phase_start_idx ON bookings (owner_id, phase, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_phase_idx ON bookings (phase);
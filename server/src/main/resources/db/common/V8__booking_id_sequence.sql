@@ -0,0 +1,3 @@
+-- Bookings take ids from this sequence in blocks of 50 (Hibernate pooled optimizer); the identity
+-- default of bookings.id is no longer used by the application.
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,5 @@
+CREATE INDEX IF NOT EXISTS bookings_phase_start_idx ON bookings (phase, start_date);
+
+CREATE INDEX IF NOT EXISTS bookings_phase_end_idx ON bookings (phase, end_date);
+
+DROP INDEX IF EXISTS bookings_phase_idx;
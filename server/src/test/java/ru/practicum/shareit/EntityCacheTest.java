@@ -0,0 +1,42 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.transaction.TestTransaction;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+@DataJpaTest
+class EntityCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    @DirtiesContext
+    void userLookupByIdShouldBeServedFromSecondLevelCache() {
+        long id = userRepository.save(new User(null, "user", "cache@mail.ru")).getId();
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        userRepository.findById(id);
+        userRepository.findById(id);
+
+        assertThat(statistics.getSecondLevelCacheHitCount(), greaterThanOrEqualTo(1L));
+        assertThat(statistics.getPrepareStatementCount(), lessThanOrEqualTo(1L));
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.enums.BookingStatusEnum;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.TestEntities.newBooking;
+import static ru.practicum.shareit.TestEntities.newItem;
+
+/**
+ * Statement budgets per endpoint. Every listing returns several rows, so a lazy association touched while
+ * mapping to DTOs shows up as one extra statement per row and breaks the budget.
+ */
+@SpringBootTest(properties = RecordingStatementInspector.PROPERTY)
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext
+class FetchPlanTest {
+    private static final int ROWS = 5;
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRequestRepository requestRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeAll
+    void seed() {
+        owner = userRepository.save(new User(null, "owner", "owner@mail.ru"));
+        booker = userRepository.save(new User(null, "booker", "booker@mail.ru"));
+        for (int i = 0; i < ROWS; i++) {
+            item = itemRepository.save(newItem(null, "item" + i, "description", true, owner, null));
+            commentRepository.save(new Comment(null, "comment", item, booker, LocalDateTime.now()));
+            bookingRepository.save(newBooking(0L, LocalDateTime.now().plusDays(i + 1),
+                    LocalDateTime.now().plusDays(i + 2), item, booker, BookingStatusEnum.WAITING));
+
+            ItemRequest request = requestRepository.save(
+                    new ItemRequest(0L, "request" + i, booker, LocalDateTime.now()));
+            itemRepository.save(newItem(null, "answer" + i, "description", true, owner, request));
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void getItemById_staysWithinBudget() throws Exception {
+        assertBudget(get("/items/{itemId}", item.getId()).header("X-Sharer-User-Id", owner.getId()), 3);
+    }
+
+    @Test
+    void getItemsByOwner_staysWithinBudget() throws Exception {
+        assertBudget(get("/items").param("size", "20").header("X-Sharer-User-Id", owner.getId()), 3);
+    }
+
+    @Test
+    void getBookingsByBooker_staysWithinBudget() throws Exception {
+        assertBudget(get("/bookings").header("X-Sharer-User-Id", booker.getId()), 2);
+    }
+
+    @Test
+    void getAllRequests_staysWithinBudget() throws Exception {
+        assertBudget(get("/requests/all").header("X-Sharer-User-Id", owner.getId()), 3);
+    }
+
+    private void assertBudget(RequestBuilder request, int budget) throws Exception {
+        RecordingStatementInspector.clear();
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isNotEmpty());
+
+        List<String> statements = RecordingStatementInspector.statements();
+        assertThat(String.join("\n", statements), statements.size(), lessThanOrEqualTo(budget));
+    }
+}
@@ -0,0 +1,181 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.enums.BookingStatusEnum;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.data.domain.Sort.Direction.DESC;
+
+/**
+ * Runs every repository query, records the SQL Hibernate actually sends and checks that H2 plans
+ * it without a table scan. Item search is left out: its LIKE predicates are served by the pg_trgm
+ * indexes, which exist on PostgreSQL only.
+ */
+@DataJpaTest(properties = RecordingStatementInspector.PROPERTY)
+class QueryPlanTest {
+    private static final LocalDateTime MOMENT = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final Pageable BOOKING_PAGE = PageRequest.of(0, 10, Sort.by("start").descending());
+    private static final Pageable BOOKING_KEYSET = PageRequest.of(0, 10, Sort.by(DESC, "start", "id"));
+    private static final Pageable COMMENT_PAGE = PageRequest.of(0, 10, Sort.by(DESC, "created", "id"));
+    private static final List<BookingStatusEnum> ACTIVE =
+            List.of(BookingStatusEnum.WAITING, BookingStatusEnum.APPROVED);
+
+    @Autowired
+    private EntityManager em;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository requestRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    static Stream<Arguments> repositoryQueries() {
+        return Stream.of(
+                query("bookings.findById", t -> t.bookingRepository.findById(1L)),
+                query("bookings.findItemIdById", t -> t.bookingRepository.findItemIdById(1L)),
+                query("bookings.findAllByBookerId", t -> t.bookingRepository.findAllByBookerId(1L, BOOKING_PAGE)),
+                query("bookings.findAllByBookerIdAndStateCurrent",
+                        t -> t.bookingRepository.findAllByBookerIdAndStateCurrent(1L, BOOKING_PAGE)),
+                query("bookings.findAllByBookerIdAndStatePast",
+                        t -> t.bookingRepository.findAllByBookerIdAndStatePast(1L, BOOKING_PAGE)),
+                query("bookings.findAllByBookerIdAndStateFuture",
+                        t -> t.bookingRepository.findAllByBookerIdAndStateFuture(1L, BOOKING_PAGE)),
+                query("bookings.findAllByBookerIdAndStatus", t -> t.bookingRepository
+                        .findAllByBookerIdAndStatus(1L, BookingStatusEnum.WAITING, BOOKING_PAGE)),
+                query("bookings.findAllByOwnerId", t -> t.bookingRepository.findAllByOwnerId(1L, BOOKING_PAGE)),
+                query("bookings.findAllByOwnerIdAndStateCurrent",
+                        t -> t.bookingRepository.findAllByOwnerIdAndStateCurrent(1L, BOOKING_PAGE)),
+                query("bookings.findAllByOwnerIdAndStatePast",
+                        t -> t.bookingRepository.findAllByOwnerIdAndStatePast(1L, BOOKING_PAGE)),
+                query("bookings.findAllByOwnerIdAndStateFuture",
+                        t -> t.bookingRepository.findAllByOwnerIdAndStateFuture(1L, BOOKING_PAGE)),
+                query("bookings.findAllByOwnerIdAndStatus", t -> t.bookingRepository
+                        .findAllByOwnerIdAndStatus(1L, BookingStatusEnum.WAITING, BOOKING_PAGE)),
+                query("bookings.streamAllByBookerId", t -> {
+                    try (Stream<?> rows = t.bookingRepository.streamAllByBookerId(1L)) {
+                        rows.count();
+                    }
+                }),
+                query("bookings.streamAllByOwnerId", t -> {
+                    try (Stream<?> rows = t.bookingRepository.streamAllByOwnerId(1L)) {
+                        rows.count();
+                    }
+                }),
+                query("bookings.findKeysetByBookerId",
+                        t -> t.bookingRepository.findKeysetByBookerId(1L, MOMENT, 10L, BOOKING_KEYSET)),
+                query("bookings.findKeysetByBookerIdAndStateCurrent", t -> t.bookingRepository
+                        .findKeysetByBookerIdAndStateCurrent(1L, MOMENT, 10L, BOOKING_KEYSET)),
+                query("bookings.findKeysetByBookerIdAndStatePast", t -> t.bookingRepository
+                        .findKeysetByBookerIdAndStatePast(1L, MOMENT, 10L, BOOKING_KEYSET)),
+                query("bookings.findKeysetByBookerIdAndStateFuture", t -> t.bookingRepository
+                        .findKeysetByBookerIdAndStateFuture(1L, MOMENT, 10L, BOOKING_KEYSET)),
+                query("bookings.findKeysetByBookerIdAndStatus", t -> t.bookingRepository
+                        .findKeysetByBookerIdAndStatus(1L, BookingStatusEnum.WAITING, MOMENT, 10L, BOOKING_KEYSET)),
+                query("bookings.findKeysetByOwnerId",
+                        t -> t.bookingRepository.findKeysetByOwnerId(1L, MOMENT, 10L, BOOKING_KEYSET)),
+                query("bookings.findKeysetByOwnerIdAndStateCurrent", t -> t.bookingRepository
+                        .findKeysetByOwnerIdAndStateCurrent(1L, MOMENT, 10L, BOOKING_KEYSET)),
+                query("bookings.findKeysetByOwnerIdAndStatePast", t -> t.bookingRepository
+                        .findKeysetByOwnerIdAndStatePast(1L, MOMENT, 10L, BOOKING_KEYSET)),
+                query("bookings.findKeysetByOwnerIdAndStateFuture", t -> t.bookingRepository
+                        .findKeysetByOwnerIdAndStateFuture(1L, MOMENT, 10L, BOOKING_KEYSET)),
+                query("bookings.findKeysetByOwnerIdAndStatus", t -> t.bookingRepository
+                        .findKeysetByOwnerIdAndStatus(1L, BookingStatusEnum.WAITING, MOMENT, 10L, BOOKING_KEYSET)),
+                query("bookings.existsByBookerIdAndItemIdAndEndBefore",
+                        t -> t.bookingRepository.existsByBookerIdAndItemIdAndEndBefore(1L, 1L, MOMENT)),
+                query("bookings.findIntervalsByStatusInAndEndAfter",
+                        t -> t.bookingRepository.findIntervalsByStatusInAndEndAfter(ACTIVE, MOMENT)),
+                query("bookings.findLastByStatusPerItem",
+                        t -> t.bookingRepository.findLastByStatusPerItem(BookingStatusEnum.APPROVED, MOMENT)),
+                query("bookings.findByStatusStartingAfter",
+                        t -> t.bookingRepository.findByStatusStartingAfter(BookingStatusEnum.APPROVED, MOMENT)),
+                query("bookings.markStarted", t -> t.bookingRepository.markStarted(MOMENT)),
+                query("bookings.markEnded", t -> t.bookingRepository.markEnded(MOMENT)),
+                query("items.findAllByOwnerId", t -> t.itemRepository.findAllByOwnerId(1L,
+                        PageRequest.of(0, 10, Sort.by("id").ascending()))),
+                query("items.findAllById", t -> t.itemRepository.findAllById(List.of(1L, 2L))),
+                query("items.findAllByRequestIdIn", t -> t.itemRepository.findAllByRequestIdIn(List.of(1L, 2L))),
+                query("comments.findLatestByItemId", t -> t.commentRepository.findLatestByItemId(1L, COMMENT_PAGE)),
+                query("comments.findKeysetByItemId",
+                        t -> t.commentRepository.findKeysetByItemId(1L, MOMENT, 10L, COMMENT_PAGE)),
+                query("comments.findLatestByItemIdIn",
+                        t -> t.commentRepository.findLatestByItemIdIn(List.of(1L, 2L), 10)),
+                query("comments.countByItemId", t -> t.commentRepository.countByItemId(1L)),
+                query("comments.countByItemIdIn", t -> t.commentRepository.countByItemIdIn(List.of(1L, 2L))),
+                query("requests.findAllByRequestorId",
+                        t -> t.requestRepository.findAllByRequestorId(1L, Sort.by(DESC, "created"))),
+                query("requests.findAllByRequestorIdIsNot", t -> t.requestRepository
+                        .findAllByRequestorIdIsNot(1L, PageRequest.of(0, 10, Sort.by("created").descending()))),
+                query("users.existsByEmail", t -> t.userRepository.existsByEmail("user@mail.ru"))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void queryShouldBeServedByIndex(String name, Consumer<QueryPlanTest> call) {
+        RecordingStatementInspector.clear();
+        call.accept(this);
+        List<String> statements = RecordingStatementInspector.statements();
+
+        assertThat(statements, not(empty()));
+        for (String plan : explain(statements)) {
+            assertThat(plan, not(containsString("tableScan")));
+        }
+    }
+
+    /**
+     * H2 picks the plan when the statement is prepared, so binding nulls only satisfies the
+     * parameter check and does not influence the index choice.
+     */
+    private List<String> explain(List<String> statements) {
+        List<String> plans = new ArrayList<>();
+        em.unwrap(Session.class).doWork(connection -> {
+            for (String sql : statements) {
+                try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+                    int parameters = explain.getParameterMetaData().getParameterCount();
+                    for (int i = 1; i <= parameters; i++) {
+                        explain.setObject(i, null);
+                    }
+                    try (ResultSet plan = explain.executeQuery()) {
+                        plan.next();
+                        plans.add(plan.getString(1));
+                    }
+                }
+            }
+        });
+        return plans;
+    }
+
+    private static Arguments query(String name, Consumer<QueryPlanTest> call) {
+        return Arguments.of(name, call);
+    }
+}
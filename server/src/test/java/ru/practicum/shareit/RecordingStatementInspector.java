@@ -0,0 +1,32 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records every SQL statement Hibernate prepares on the calling thread. Enabled per test class through
+ * {@link #PROPERTY}; Hibernate instantiates it by class name, hence the static log. The log is kept per
+ * thread so that scheduled jobs running alongside a test do not leak into its counts.
+ */
+public class RecordingStatementInspector implements StatementInspector {
+    public static final String PROPERTY = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+            "ru.practicum.shareit.RecordingStatementInspector";
+
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get().add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.get().clear();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(STATEMENTS.get());
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.enums.BookingStatusEnum;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entities as the tests build them: only the fields a test cares about, with version, owner id
+ * and phase left for the persistence callbacks.
+ */
+@UtilityClass
+public class TestEntities {
+    public Item newItem(Long id, String name, String description, Boolean available, User owner,
+                        ItemRequest request) {
+        return new Item(id, name, description, available, owner, request, 0L);
+    }
+
+    public Booking newBooking(long id, LocalDateTime start, LocalDateTime end, Item item, User booker,
+                              BookingStatusEnum status) {
+        return new Booking(id, start, end, item, booker, null, status, null, 0L);
+    }
+}
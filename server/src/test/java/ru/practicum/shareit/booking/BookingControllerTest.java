@@ -5,27 +5,37 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.booking.controllers.BookingController;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.config.EtagConfig;
 import ru.practicum.shareit.enums.BookingStatusEnum;
 import ru.practicum.shareit.item.dto.ItemDtoShort;
 import ru.practicum.shareit.user.dto.UserDtoShort;
+import ru.practicum.shareit.utils.KeysetCursor;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
+@Import(EtagConfig.class)
 class BookingControllerTest {
 
     @MockBean
@@ -67,6 +77,59 @@ class BookingControllerTest {
                 .andExpect(content().json(mapper.writeValueAsString(bookingDtoOut)));
     }
 
+    @Test
+    void saveNewBookings() throws Exception {
+        when(bookingService.saveAll(anyList(), anyLong())).thenReturn(List.of(bookingDtoOut));
+
+        mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(List.of(bookingDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(List.of(bookingDtoOut))));
+    }
+
+    @Test
+    void saveNewBookings_whenBatchIsTooLarge_returnsBadRequest() throws Exception {
+        mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(Collections.nCopies(501, bookingDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    void saveNewBookings_whenEntryIsNull_returnsBadRequest() throws Exception {
+        mvc.perform(post("/bookings/batch")
+                        .content("[" + mapper.writeValueAsString(bookingDto) + ",null]")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    void saveNewBookings_whenEntryMissesStart_returnsBadRequest() throws Exception {
+        mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(List.of(bookingDto, bookingNullStart)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingService);
+    }
+
     @Test
     void approve() throws Exception {
         when(bookingService.approve(anyLong(), any(), anyLong())).thenReturn(bookingDtoOut);
@@ -125,4 +188,98 @@ class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().json(mapper.writeValueAsString(List.of(bookingDtoOut))));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllByBooker_withCursor_returnsNextCursor() throws Exception {
+        when(bookingService.getAllByBookerAfter(any(), anyInt(), anyString(), anyLong()))
+                .thenReturn(List.of(bookingDtoOut));
+        String nextCursor = new KeysetCursor(bookingDtoOut.getStart(), bookingDtoOut.getId()).encode();
+
+        mvc.perform(get("/bookings?state=ALL&size=1&cursor=")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", nextCursor))
+                .andExpect(content().json(mapper.writeValueAsString(List.of(bookingDtoOut))));
+    }
+
+    @Test
+    void getAllByOwner_withCursor_passesDecodedPosition() throws Exception {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2024, 1, 1, 10, 0), 5L);
+        when(bookingService.getAllByOwnerAfter(eq(cursor), eq(10), eq("ALL"), eq(1L)))
+                .thenReturn(List.of(bookingDtoOut));
+
+        mvc.perform(get("/bookings/owner?state=ALL&cursor=" + cursor.encode())
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void getAllByBooker_withMalformedCursor_returnsBadRequest() throws Exception {
+        mvc.perform(get("/bookings?state=ALL&cursor=bm90LWEtY3Vyc29y")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllByBooker_withMatchingEtag_returnsNotModified() throws Exception {
+        when(bookingService.getAllByBooker(anyInt(), anyInt(), anyString(), anyLong()))
+                .thenReturn(List.of(bookingDtoOut));
+
+        String etag = mvc.perform(get("/bookings?state=CURRENT")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/bookings?state=CURRENT")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void exportByBooker_streamsNdjson() throws Exception {
+        when(bookingService.exportByBooker(1L)).thenReturn(out -> {
+            out.write(mapper.writeValueAsBytes(bookingDtoOut));
+            out.write('\n');
+        });
+
+        MvcResult result = mvc.perform(get("/bookings/export")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(mapper.writeValueAsString(bookingDtoOut) + "\n"));
+    }
+
+    @Test
+    void getAllByBooker_whenKeysetSizeIsNotPositive_returnsBadRequest() throws Exception {
+        String cursor = new KeysetCursor(LocalDateTime.now(), 1L).encode();
+
+        mvc.perform(get("/bookings")
+                        .param("size", "0")
+                        .param("cursor", cursor)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/bookings/owner")
+                        .param("size", "-1")
+                        .param("cursor", cursor)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingService);
+    }
+}
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.enums.BookingStatusEnum;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+import static ru.practicum.shareit.TestEntities.newBooking;
+import static ru.practicum.shareit.TestEntities.newItem;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+    @InjectMocks
+    private BookingIntervalIndex index;
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private final User owner = new User(1L, "Owner", "owner@mail.ru");
+    private final User booker = new User(2L, "Booker", "booker@mail.ru");
+    private final Item item = newItem(1L, "item", "cool", true, owner, null);
+    private final Booking booking = newBooking(1L, now.plusDays(1), now.plusDays(3), item, booker,
+            BookingStatusEnum.WAITING);
+
+    @Test
+    void shouldDetectOverlap_whenIntervalsIntersect() {
+        index.register(booking);
+
+        assertTrue(index.hasOverlap(1L, now.plusDays(2), now.plusDays(4)));
+        assertTrue(index.hasOverlap(1L, now, now.plusDays(2)));
+        assertTrue(index.hasOverlap(1L, now.plusHours(30), now.plusHours(40)));
+    }
+
+    @Test
+    void shouldNotDetectOverlap_whenIntervalsOnlyTouch() {
+        index.register(booking);
+
+        assertFalse(index.hasOverlap(1L, now.plusDays(3), now.plusDays(4)));
+        assertFalse(index.hasOverlap(1L, now, now.plusDays(1)));
+        assertFalse(index.hasOverlap(2L, now.plusDays(2), now.plusDays(4)));
+    }
+
+    @Test
+    void shouldIgnoreExcludedBooking() {
+        index.register(booking);
+
+        assertFalse(index.hasOverlap(1L, booking.getStart(), booking.getEnd(), booking.getId()));
+    }
+
+    @Test
+    void shouldForgetInterval_whenUnregistered() {
+        index.register(booking);
+        index.unregister(booking);
+
+        assertFalse(index.hasOverlap(1L, now.plusDays(2), now.plusDays(4)));
+    }
+
+    @Test
+    void shouldLoadActiveIntervals_onWarmUp() {
+        when(bookingRepository.findIntervalsByStatusInAndEndAfter(anyList(), any()))
+                .thenReturn(List.of(new BookingInterval(5L, 7L, now.plusDays(1), now.plusDays(2))));
+
+        index.warmUp();
+
+        assertTrue(index.hasOverlap(7L, now, now.plusDays(5)));
+    }
+
+    @Test
+    void shouldKeepEachBooking_whenLegacyIntervalsShareStart() {
+        when(bookingRepository.findIntervalsByStatusInAndEndAfter(anyList(), any())).thenReturn(List.of(
+                new BookingInterval(5L, 7L, now.plusDays(1), now.plusDays(4)),
+                new BookingInterval(6L, 7L, now.plusDays(1), now.plusDays(2))));
+        index.warmUp();
+        Booking longer = newBooking(5L, now.plusDays(1), now.plusDays(4), newItem(7L, "item", "cool", true,
+                owner, null), booker, BookingStatusEnum.WAITING);
+
+        index.unregister(longer);
+
+        assertTrue(index.hasOverlap(7L, now, now.plusHours(36)));
+    }
+
+    @Test
+    void shouldDetectOverlap_whenLongerLegacyIntervalStartsEarlier() {
+        when(bookingRepository.findIntervalsByStatusInAndEndAfter(anyList(), any())).thenReturn(List.of(
+                new BookingInterval(5L, 7L, now.plusDays(1), now.plusDays(10)),
+                new BookingInterval(6L, 7L, now.plusDays(2), now.plusDays(3))));
+        index.warmUp();
+
+        assertTrue(index.hasOverlap(7L, now.plusDays(5), now.plusDays(6)));
+        assertFalse(index.hasOverlap(7L, now.plusDays(10), now.plusDays(11)));
+    }
+}
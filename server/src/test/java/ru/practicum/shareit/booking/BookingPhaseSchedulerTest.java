@@ -0,0 +1,58 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingPhaseScheduler;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingPhaseSchedulerTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+    @InjectMocks
+    private BookingPhaseScheduler scheduler;
+
+    @Test
+    void shouldEndBookingsBeforeStartingThem_atTheSameMoment() {
+        scheduler.rollForward();
+
+        ArgumentCaptor<LocalDateTime> ended = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> started = ArgumentCaptor.forClass(LocalDateTime.class);
+        InOrder order = inOrder(bookingRepository);
+        order.verify(bookingRepository).markEnded(ended.capture());
+        order.verify(bookingRepository).markStarted(started.capture());
+        assertEquals(ended.getValue(), started.getValue());
+    }
+
+    @Test
+    void shouldRetryOnNextTick_whenUpdateFails() {
+        when(bookingRepository.markEnded(any()))
+                .thenThrow(new IllegalStateException("connection reset"))
+                .thenReturn(3);
+
+        assertThrows(IllegalStateException.class, () -> scheduler.rollForward());
+        verify(bookingRepository, never()).markStarted(any());
+
+        scheduler.rollForward();
+
+        verify(bookingRepository, times(2)).markEnded(any());
+        verify(bookingRepository).markStarted(any());
+    }
+}
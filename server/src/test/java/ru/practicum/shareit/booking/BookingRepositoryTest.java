@@ -4,8 +4,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 
@@ -18,9 +21,12 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static ru.practicum.shareit.TestEntities.newBooking;
+import static ru.practicum.shareit.TestEntities.newItem;
 
 @DataJpaTest
 class BookingRepositoryTest {
@@ -34,8 +40,8 @@ class BookingRepositoryTest {
 
     private final User user = new User(null, "user", "user@mail.ru");
     private final User booker = new User(null, "user2", "user2@mail.ru");
-    private final Item item = new Item(null, "item", "cool", true, user, null);
-    private final Booking booking = new Booking(1L,
+    private final Item item = newItem(null, "item", "cool", true, user, null);
+    private final Booking booking = newBooking(1L,
             LocalDateTime.of(2023, 7, 1, 12, 12, 12),
             LocalDateTime.of(2023, 7, 30, 12, 12, 12),
             item, booker, BookingStatusEnum.WAITING);
@@ -51,9 +57,106 @@ class BookingRepositoryTest {
     @Test
     @DirtiesContext
     void findAllByBookerId() {
-        List<Booking> bookings = bookingRepository.findAllByBookerId(2L, Pageable.ofSize(10));
+        List<BookingDtoOut> bookings = bookingRepository.findAllByBookerId(2L, Pageable.ofSize(10));
 
         assertThat(bookings.get(0).getId(), equalTo(booking.getId()));
         assertThat(bookings.size(), equalTo(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DirtiesContext
+    void findKeysetByBookerId_returnsRowsBelowCursor() {
+        Booking later = bookingRepository.save(newBooking(0L,
+                LocalDateTime.of(2023, 8, 1, 12, 12, 12),
+                LocalDateTime.of(2023, 8, 30, 12, 12, 12),
+                item, booker, BookingStatusEnum.WAITING));
+        Pageable pageable = PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "start", "id"));
+
+        List<BookingDtoOut> firstPage = bookingRepository.findKeysetByBookerId(booker.getId(),
+                LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE, pageable);
+        List<BookingDtoOut> secondPage = bookingRepository.findKeysetByBookerId(booker.getId(),
+                firstPage.get(0).getStart(), firstPage.get(0).getId(), pageable);
+
+        assertThat(firstPage.get(0).getId(), equalTo(later.getId()));
+        assertThat(secondPage.size(), equalTo(1));
+        assertThat(secondPage.get(0).getStart(), equalTo(booking.getStart()));
+    }
+
+    @Test
+    @DirtiesContext
+    void findAllByOwnerId_usesDenormalizedOwner() {
+        List<BookingDtoOut> bookings = bookingRepository.findAllByOwnerId(user.getId(), Pageable.ofSize(10));
+
+        assertThat(bookings.size(), equalTo(1));
+        assertThat(bookings.get(0).getId(), equalTo(booking.getId()));
+    }
+
+    @Test
+    @DirtiesContext
+    void findAllByBookerId_projectsItemAndBooker() {
+        List<BookingDtoOut> bookings = bookingRepository.findAllByBookerId(booker.getId(), Pageable.ofSize(10));
+
+        assertThat(bookings.get(0).getItem().getId(), equalTo(item.getId()));
+        assertThat(bookings.get(0).getItem().getName(), equalTo(item.getName()));
+        assertThat(bookings.get(0).getBooker().getId(), equalTo(booker.getId()));
+        assertThat(bookings.get(0).getBooker().getName(), equalTo(booker.getName()));
+        assertThat(bookings.get(0).getStatus(), equalTo(booking.getStatus()));
+    }
+
+    @Test
+    @DirtiesContext
+    void findAllByBookerIdAndState_filtersByPhaseAssignedOnPersist() {
+        List<BookingDtoOut> past = bookingRepository.findAllByBookerIdAndStatePast(booker.getId(), Pageable.ofSize(10));
+        List<BookingDtoOut> future = bookingRepository.findAllByBookerIdAndStateFuture(booker.getId(),
+                Pageable.ofSize(10));
+
+        assertThat(past.size(), equalTo(1));
+        assertThat(future.size(), equalTo(0));
+    }
+
+    @Test
+    @DirtiesContext
+    void markStarted_movesStartedFutureBookingsToCurrent() {
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.saveAndFlush(newBooking(0L, now.plusHours(1), now.plusDays(1), item, booker,
+                BookingStatusEnum.APPROVED));
+
+        assertThat(bookingRepository.markEnded(now.plusHours(2)), equalTo(0));
+        assertThat(bookingRepository.markStarted(now.plusHours(2)), equalTo(1));
+
+        List<BookingDtoOut> current = bookingRepository.findAllByOwnerIdAndStateCurrent(user.getId(),
+                Pageable.ofSize(10));
+        assertThat(current.size(), equalTo(1));
+        assertThat(bookingRepository.findAllByOwnerIdAndStateFuture(user.getId(), Pageable.ofSize(10)).size(),
+                equalTo(0));
+    }
+
+    @Test
+    @DirtiesContext
+    void markEnded_movesFinishedBookingsToPastSkippingCurrent() {
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.saveAndFlush(newBooking(0L, now.plusHours(1), now.plusHours(2), item, booker,
+                BookingStatusEnum.APPROVED));
+
+        assertThat(bookingRepository.markEnded(now.plusHours(3)), equalTo(1));
+        assertThat(bookingRepository.markStarted(now.plusHours(3)), equalTo(0));
+
+        assertThat(bookingRepository.findAllByOwnerIdAndStatePast(user.getId(), Pageable.ofSize(10)).size(),
+                equalTo(2));
+    }
+
+    @Test
+    @DirtiesContext
+    void streamAllByBookerId_returnsNewestFirst() {
+        Booking later = bookingRepository.save(newBooking(0L,
+                LocalDateTime.of(2023, 8, 1, 12, 12, 12),
+                LocalDateTime.of(2023, 8, 30, 12, 12, 12),
+                item, booker, BookingStatusEnum.APPROVED));
+
+        try (Stream<BookingDtoOut> bookings = bookingRepository.streamAllByBookerId(booker.getId())) {
+            List<Long> ids = bookings.map(BookingDtoOut::getId).toList();
+
+            assertThat(ids, equalTo(List.of(later.getId(), booking.getId())));
+        }
+    }
+}
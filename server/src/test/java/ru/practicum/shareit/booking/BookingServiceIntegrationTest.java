@@ -20,6 +20,7 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -108,6 +109,31 @@ public class BookingServiceIntegrationTest {
     }
 
 
+    @Test
+    void testSaveAllAssignsDistinctIdsAndPersistsEveryBooking() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingDtoIn> batch = List.of(
+                new BookingDtoIn(start, start.plusDays(1), availableItem.getId()),
+                new BookingDtoIn(start.plusDays(1), start.plusDays(2), availableItem.getId()),
+                new BookingDtoIn(start.plusDays(2), start.plusDays(3), availableItem.getId()));
+
+        List<BookingDtoOut> saved = bookingService.saveAll(batch, booker.getId());
+
+        assertThat(saved).extracting(BookingDtoOut::getId).doesNotHaveDuplicates().doesNotContain(0L);
+        assertThat(bookingRepository.findAllById(saved.stream().map(BookingDtoOut::getId).toList())).hasSize(3);
+    }
+
+    @Test
+    void testSaveAllRejectsBookingsOverlappingEachOther() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingDtoIn> batch = List.of(
+                new BookingDtoIn(start, start.plusDays(2), availableItem.getId()),
+                new BookingDtoIn(start.plusDays(1), start.plusDays(3), availableItem.getId()));
+
+        assertThatThrownBy(() -> bookingService.saveAll(batch, booker.getId()))
+                .isInstanceOf(ItemIsNotAvailableException.class);
+    }
+
     @Test
     void testFindBookingById() {
         Booking savedBooking = bookingRepository.save(booking);
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
@@ -13,7 +14,12 @@ import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingExport;
+import ru.practicum.shareit.booking.service.BookingExporter;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.booking.service.LastNextBookingIndex;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.service.ItemLockStripes;
 import ru.practicum.shareit.enums.BookingStatusEnum;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.model.Item;
@@ -21,16 +27,22 @@ import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 import ru.practicum.shareit.user.service.UserServiceImpl;
+import ru.practicum.shareit.utils.KeysetCursor;
 
+import java.io.ByteArrayOutputStream;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
+import static ru.practicum.shareit.TestEntities.newBooking;
+import static ru.practicum.shareit.TestEntities.newItem;
 
 @ExtendWith(MockitoExtension.class)
 class BookingServiceTest {
@@ -41,6 +53,16 @@ class BookingServiceTest {
     private ItemRepository itemRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private UserExistenceCache userExistenceCache;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
+    private LastNextBookingIndex lastNextBookingIndex;
+    @Mock
+    private BookingExporter bookingExporter;
+    @Mock
+    private ItemLockStripes itemLockStripes;
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -51,8 +73,8 @@ class BookingServiceTest {
     private final UserDto owner = new UserDto(1L, "Owner", "owner@example.com");
     private final User booker = new User(2L, "user2", "user2@mail.ru");
     private final UserDto bookerDto = new UserDto(2L, "user2", "user2@mail.ru");
-    private final Item item = new Item(1L, "item", "cool", true, user, null);
-    private final Booking booking = new Booking(1L,
+    private final Item item = newItem(1L, "item", "cool", true, user, null);
+    private final Booking booking = newBooking(1L,
             LocalDateTime.of(2023, 7, 1, 12, 12, 12),
             LocalDateTime.of(2023, 7, 30, 12, 12, 12),
             item, booker, BookingStatusEnum.WAITING);
@@ -112,18 +134,70 @@ class BookingServiceTest {
     @Test
     void shouldApproveBooking_whenConditionsAreMet() {
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.findItemIdById(1L)).thenReturn(Optional.of(1L));
         lenient().when(userRepository.findById(1L)).thenReturn(Optional.of(user));
 
         BookingDtoOut actualBooking = bookingService.approve(1L, true, 1L);
 
         assertEquals(BookingStatusEnum.APPROVED, actualBooking.getStatus());
+        verify(lastNextBookingIndex).register(booking);
+    }
+
+
+    @Test
+    void shouldThrowException_whenBookingOverlapsExistingOne() {
+        bookingDtoIn.setStart(LocalDateTime.now().plusDays(1));
+        bookingDtoIn.setEnd(LocalDateTime.now().plusDays(2));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(bookingIntervalIndex.hasOverlap(1L, bookingDtoIn.getStart(), bookingDtoIn.getEnd())).thenReturn(true);
+
+        Assertions.assertThrows(ItemIsNotAvailableException.class, () ->
+                bookingService.save(bookingDtoIn, 2L));
+        verify(bookingRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void shouldSaveBookingAndRegisterInterval_whenNoOverlap() {
+        bookingDtoIn.setStart(LocalDateTime.now().plusDays(1));
+        bookingDtoIn.setEnd(LocalDateTime.now().plusDays(2));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+
+        BookingDtoOut actualBooking = bookingService.save(bookingDtoIn, 2L);
+
+        assertEquals(BookingStatusEnum.WAITING, actualBooking.getStatus());
+        verify(itemLockStripes).lockUntilCompletion(1L);
+        verify(bookingIntervalIndex).register(any(Booking.class));
+    }
+
+    @Test
+    void shouldThrowException_whenDatabaseRejectsOverlapFromAnotherInstance() {
+        bookingDtoIn.setStart(LocalDateTime.now().plusDays(1));
+        bookingDtoIn.setEnd(LocalDateTime.now().plusDays(2));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.saveAndFlush(any(Booking.class)))
+                .thenThrow(new DataIntegrityViolationException("bookings_no_overlap_excl"));
+
+        Assertions.assertThrows(ItemIsNotAvailableException.class, () ->
+                bookingService.save(bookingDtoIn, 2L));
+        verify(bookingIntervalIndex, never()).register(any(Booking.class));
     }
 
+    @Test
+    void shouldThrowException_whenApprovedBookingWouldOverlap() {
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.findItemIdById(1L)).thenReturn(Optional.of(1L));
+        when(bookingIntervalIndex.hasOverlap(1L, booking.getStart(), booking.getEnd(), 1L)).thenReturn(true);
+
+        Assertions.assertThrows(ItemIsNotAvailableException.class, () ->
+                bookingService.approve(1L, true, 1L));
+    }
 
     @Test
     void shouldThrowException_whenBookingDoesNotExist() {
-        when((bookingRepository).findById(2L)).thenReturn(Optional.empty());
+        when(bookingRepository.findItemIdById(2L)).thenReturn(Optional.empty());
 
         Assertions.assertThrows(EntityNotFoundException.class, () ->
                 bookingService.approve(2L, true, 1L));
@@ -134,7 +208,7 @@ class BookingServiceTest {
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
         booking.setStatus(BookingStatusEnum.APPROVED);
 
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.findItemIdById(1L)).thenReturn(Optional.of(1L));
 
         Assertions.assertThrows(ItemIsNotAvailableException.class, () ->
                 bookingService.approve(1L, true, 1L));
@@ -163,8 +237,8 @@ class BookingServiceTest {
 
     @Test
     void shouldReturnAllBookings_whenStateIsAll() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerId(anyLong(), any())).thenReturn(List.of(booking));
+        when(userExistenceCache.exists(2L)).thenReturn(true);
+        when(bookingRepository.findAllByBookerId(anyLong(), any())).thenReturn(List.of(BookingMapper.toBookingDtoOut(booking)));
 
         List<BookingDtoOut> actualBookings = bookingService.getAllByBooker(0, 10, "ALL", 2L);
 
@@ -173,8 +247,8 @@ class BookingServiceTest {
 
     @Test
     void shouldReturnCurrentBookings_whenStateIsCurrent() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerIdAndStateCurrent(anyLong(), any())).thenReturn(List.of(booking));
+        when(userExistenceCache.exists(2L)).thenReturn(true);
+        when(bookingRepository.findAllByBookerIdAndStateCurrent(anyLong(), any())).thenReturn(List.of(BookingMapper.toBookingDtoOut(booking)));
 
         List<BookingDtoOut> actualBookings = bookingService.getAllByBooker(0, 10, "CURRENT", 2L);
 
@@ -183,8 +257,8 @@ class BookingServiceTest {
 
     @Test
     void shouldReturnPastBookings_whenStateIsPast() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerIdAndStatePast(anyLong(), any())).thenReturn(List.of(booking));
+        when(userExistenceCache.exists(2L)).thenReturn(true);
+        when(bookingRepository.findAllByBookerIdAndStatePast(anyLong(), any())).thenReturn(List.of(BookingMapper.toBookingDtoOut(booking)));
 
         List<BookingDtoOut> actualBookings = bookingService.getAllByBooker(0, 10, "PAST", 2L);
 
@@ -193,8 +267,8 @@ class BookingServiceTest {
 
     @Test
     void shouldReturnFutureBookings_whenStateIsFuture() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerIdAndStateFuture(anyLong(), any())).thenReturn(List.of(booking));
+        when(userExistenceCache.exists(2L)).thenReturn(true);
+        when(bookingRepository.findAllByBookerIdAndStateFuture(anyLong(), any())).thenReturn(List.of(BookingMapper.toBookingDtoOut(booking)));
 
         List<BookingDtoOut> actualBookings = bookingService.getAllByBooker(0, 10, "FUTURE", 2L);
 
@@ -203,8 +277,8 @@ class BookingServiceTest {
 
     @Test
     void shouldReturnWaitingBookings_whenStateIsWaiting() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerIdAndStatus(anyLong(), any(), any())).thenReturn(List.of(booking));
+        when(userExistenceCache.exists(2L)).thenReturn(true);
+        when(bookingRepository.findAllByBookerIdAndStatus(anyLong(), any(), any())).thenReturn(List.of(BookingMapper.toBookingDtoOut(booking)));
 
         List<BookingDtoOut> actualBookings = bookingService.getAllByBooker(0, 10, "WAITING", 2L);
 
@@ -219,8 +293,8 @@ class BookingServiceTest {
 
     @Test
     void shouldReturnAllBookingsForOwner_whenStateIsAll() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByOwnerId(anyLong(), any())).thenReturn(List.of(booking));
+        when(userExistenceCache.exists(1L)).thenReturn(true);
+        when(bookingRepository.findAllByOwnerId(anyLong(), any())).thenReturn(List.of(BookingMapper.toBookingDtoOut(booking)));
 
         List<BookingDtoOut> actualBookings = bookingService.getAllByOwner(0, 10, "ALL", 1L);
 
@@ -230,8 +304,8 @@ class BookingServiceTest {
 
     @Test
     void shouldReturnCurrentBookingsForOwner_whenStateIsCurrent() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByOwnerIdAndStateCurrent(anyLong(), any())).thenReturn(List.of(booking));
+        when(userExistenceCache.exists(1L)).thenReturn(true);
+        when(bookingRepository.findAllByOwnerIdAndStateCurrent(anyLong(), any())).thenReturn(List.of(BookingMapper.toBookingDtoOut(booking)));
 
         List<BookingDtoOut> actualBookings = bookingService.getAllByOwner(0, 10, "CURRENT", 1L);
 
@@ -240,8 +314,8 @@ class BookingServiceTest {
 
     @Test
     void shouldReturnPastBookingsForOwner_whenStateIsPast() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByOwnerIdAndStatePast(anyLong(), any())).thenReturn(List.of(booking));
+        when(userExistenceCache.exists(1L)).thenReturn(true);
+        when(bookingRepository.findAllByOwnerIdAndStatePast(anyLong(), any())).thenReturn(List.of(BookingMapper.toBookingDtoOut(booking)));
 
         List<BookingDtoOut> actualBookings = bookingService.getAllByOwner(0, 10, "PAST", 1L);
 
@@ -250,8 +324,8 @@ class BookingServiceTest {
 
     @Test
     void shouldReturnFutureBookingsForOwner_whenStateIsFuture() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByOwnerIdAndStateFuture(anyLong(), any())).thenReturn(List.of(booking));
+        when(userExistenceCache.exists(1L)).thenReturn(true);
+        when(bookingRepository.findAllByOwnerIdAndStateFuture(anyLong(), any())).thenReturn(List.of(BookingMapper.toBookingDtoOut(booking)));
 
         List<BookingDtoOut> actualBookings = bookingService.getAllByOwner(0, 10, "FUTURE", 1L);
 
@@ -260,8 +334,8 @@ class BookingServiceTest {
 
     @Test
     void shouldReturnWaitingBookingsForOwner_whenStateIsWaiting() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByOwnerIdAndStatus(anyLong(), any(), any())).thenReturn(List.of(booking));
+        when(userExistenceCache.exists(1L)).thenReturn(true);
+        when(bookingRepository.findAllByOwnerIdAndStatus(anyLong(), any(), any())).thenReturn(List.of(BookingMapper.toBookingDtoOut(booking)));
 
         List<BookingDtoOut> actualBookings = bookingService.getAllByOwner(0, 10, "WAITING", 1L);
 
@@ -271,7 +345,7 @@ class BookingServiceTest {
     @Test
     void shouldThrowException_whenUserIsNotOwnerOfItem() {
         lenient().when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        lenient().when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        lenient().when(bookingRepository.findItemIdById(1L)).thenReturn(Optional.of(1L));
         lenient().when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
 
         Assertions.assertThrows(IllegalViewAndUpdateException.class, () ->
@@ -290,7 +364,7 @@ class BookingServiceTest {
 
     @Test
     void shouldReturnEmptyList_whenNoBookingsForBooker() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
+        when(userExistenceCache.exists(2L)).thenReturn(true);
         when(bookingRepository.findAllByBookerId(anyLong(), any())).thenReturn(Collections.emptyList());
 
         List<BookingDtoOut> actualBookings = bookingService.getAllByBooker(0, 10, "ALL", 2L);
@@ -300,7 +374,7 @@ class BookingServiceTest {
 
     @Test
     void shouldReturnEmptyList_whenNoBookingsForOwner() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userExistenceCache.exists(1L)).thenReturn(true);
         when(bookingRepository.findAllByOwnerId(anyLong(), any())).thenReturn(Collections.emptyList());
 
         List<BookingDtoOut> actualBookings = bookingService.getAllByOwner(0, 10, "ALL", 1L);
@@ -317,7 +391,7 @@ class BookingServiceTest {
 
     @Test
     void shouldThrowException_whenStateIsInvalidInGetAllByOwner() {
-        lenient().when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        lenient().when(userExistenceCache.exists(1L)).thenReturn(true);
 
         Assertions.assertThrows(UnsupportedStatusException.class, () ->
                 bookingService.getAllByOwner(0, 10, "INVALID_STATE", 1L));
@@ -327,7 +401,7 @@ class BookingServiceTest {
     @Test
     void shouldRejectBooking_whenConditionsAreMet() {
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.findItemIdById(1L)).thenReturn(Optional.of(1L));
         lenient().when(userRepository.findById(1L)).thenReturn(Optional.of(user));
 
         BookingDtoOut actualBooking = bookingService.approve(1L, false, 1L);
@@ -347,7 +421,7 @@ class BookingServiceTest {
 
     @Test
     void shouldReturnEmptyList_whenNoBookingsForOwnerInGetAllByOwner() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userExistenceCache.exists(1L)).thenReturn(true);
         when(bookingRepository.findAllByOwnerId(anyLong(), any())).thenReturn(Collections.emptyList());
 
         List<BookingDtoOut> actualBookings = bookingService.getAllByOwner(0, 10, "ALL", 1L);
@@ -358,7 +432,7 @@ class BookingServiceTest {
 
     @Test
     void shouldReturnEmptyList_whenNoBookingsForBookerInGetAllByBooker() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
+        when(userExistenceCache.exists(2L)).thenReturn(true);
         when(bookingRepository.findAllByBookerId(anyLong(), any())).thenReturn(Collections.emptyList());
 
         List<BookingDtoOut> actualBookings = bookingService.getAllByBooker(0, 10, "ALL", 2L);
@@ -393,7 +467,7 @@ class BookingServiceTest {
     @Test
     void shouldThrowException_whenApprovingBookingByNonOwner() {
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.findItemIdById(1L)).thenReturn(Optional.of(1L));
 
         Assertions.assertThrows(IllegalViewAndUpdateException.class, () ->
                 bookingService.approve(1L, true, 2L));
@@ -403,7 +477,7 @@ class BookingServiceTest {
     void shouldThrowException_whenBookingIsNotPending() {
         booking.setStatus(BookingStatusEnum.APPROVED);
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        lenient().when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        lenient().when(bookingRepository.findItemIdById(1L)).thenReturn(Optional.of(1L));
         lenient().when(userRepository.findById(1L)).thenReturn(Optional.of(user));
 
         Assertions.assertThrows(ItemIsNotAvailableException.class, () ->
@@ -424,8 +498,8 @@ class BookingServiceTest {
 
     @Test
     void shouldReturnAllBookingsForOwner_whenStateIsRejected() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByOwnerIdAndStatus(anyLong(), any(), any())).thenReturn(List.of(booking));
+        when(userExistenceCache.exists(1L)).thenReturn(true);
+        when(bookingRepository.findAllByOwnerIdAndStatus(anyLong(), any(), any())).thenReturn(List.of(BookingMapper.toBookingDtoOut(booking)));
 
         List<BookingDtoOut> actualBookings = bookingService.getAllByOwner(0, 10, "REJECTED", 1L);
 
@@ -442,7 +516,7 @@ class BookingServiceTest {
 
     @Test
     void shouldThrowException_whenNoBookingsForOwnerAndStateIsWaiting() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userExistenceCache.exists(1L)).thenReturn(true);
         when(bookingRepository.findAllByOwnerIdAndStatus(anyLong(), any(), any())).thenReturn(Collections.emptyList());
 
         List<BookingDtoOut> actualBookings = bookingService.getAllByOwner(0, 10, "WAITING", 1L);
@@ -452,7 +526,7 @@ class BookingServiceTest {
 
     @Test
     void shouldReturnEmptyList_whenNoBookingsForBookerWithStateRejected() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
+        when(userExistenceCache.exists(2L)).thenReturn(true);
         when(bookingRepository.findAllByBookerIdAndStatus(anyLong(), any(), any())).thenReturn(Collections.emptyList());
 
         List<BookingDtoOut> actualBookings = bookingService.getAllByBooker(0, 10, "REJECTED", 2L);
@@ -471,7 +545,7 @@ class BookingServiceTest {
     void shouldThrowException_whenBookingAlreadyApproved() {
         booking.setStatus(BookingStatusEnum.APPROVED);
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.findItemIdById(1L)).thenReturn(Optional.of(1L));
 
         Assertions.assertThrows(ItemIsNotAvailableException.class, () ->
                 bookingService.approve(1L, true, 1L));
@@ -485,7 +559,7 @@ class BookingServiceTest {
 
     @Test
     void shouldReturnEmptyList_whenNoBookingsForBookerWithStateWaiting() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
+        when(userExistenceCache.exists(2L)).thenReturn(true);
         when(bookingRepository.findAllByBookerIdAndStatus(anyLong(), any(), any())).thenReturn(Collections.emptyList());
 
         List<BookingDtoOut> actualBookings = bookingService.getAllByBooker(0, 10, "WAITING", 2L);
@@ -494,7 +568,7 @@ class BookingServiceTest {
 
     @Test
     void shouldReturnEmptyList_whenNoBookingsForOwnerWithStateRejected() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userExistenceCache.exists(1L)).thenReturn(true);
         when(bookingRepository.findAllByOwnerIdAndStatus(anyLong(), any(), any())).thenReturn(Collections.emptyList());
 
         List<BookingDtoOut> actualBookings = bookingService.getAllByOwner(0, 10, "REJECTED", 1L);
@@ -540,7 +614,7 @@ class BookingServiceTest {
     void shouldThrowException_whenApprovingAlreadyApprovedBooking() {
         booking.setStatus(BookingStatusEnum.APPROVED);
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.findItemIdById(1L)).thenReturn(Optional.of(1L));
 
         Assertions.assertThrows(ItemIsNotAvailableException.class, () ->
                 bookingService.approve(1L, true, 1L));
@@ -550,7 +624,7 @@ class BookingServiceTest {
     void shouldThrowException_whenRejectingAlreadyRejectedBooking() {
         booking.setStatus(BookingStatusEnum.REJECTED);
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.findItemIdById(1L)).thenReturn(Optional.of(1L));
 
         Assertions.assertThrows(ItemIsNotAvailableException.class, () ->
                 bookingService.approve(1L, false, 1L));
@@ -586,7 +660,7 @@ class BookingServiceTest {
 
     @Test
     void shouldReturnEmptyList_whenNoBookingsForOwnerWithStateFuture() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userExistenceCache.exists(1L)).thenReturn(true);
         when(bookingRepository.findAllByOwnerIdAndStateFuture(anyLong(), any())).thenReturn(Collections.emptyList());
 
         List<BookingDtoOut> actualBookings = bookingService.getAllByOwner(0, 10, "FUTURE", 1L);
@@ -595,7 +669,7 @@ class BookingServiceTest {
 
     @Test
     void shouldReturnEmptyList_whenNoBookingsForBookerWithStateFuture() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
+        when(userExistenceCache.exists(2L)).thenReturn(true);
         when(bookingRepository.findAllByBookerIdAndStateFuture(anyLong(), any())).thenReturn(Collections.emptyList());
 
         List<BookingDtoOut> actualBookings = bookingService.getAllByBooker(0, 10, "FUTURE", 2L);
@@ -606,7 +680,7 @@ class BookingServiceTest {
     void shouldThrowException_whenBookingIsNotPendingOnApprove() {
         booking.setStatus(BookingStatusEnum.REJECTED);
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.findItemIdById(1L)).thenReturn(Optional.of(1L));
 
         Assertions.assertThrows(ItemIsNotAvailableException.class, () ->
                 bookingService.approve(1L, true, 1L));
@@ -616,7 +690,7 @@ class BookingServiceTest {
     void shouldThrowException_whenBookingIsNotPendingOnReject() {
         booking.setStatus(BookingStatusEnum.APPROVED);
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.findItemIdById(1L)).thenReturn(Optional.of(1L));
 
         Assertions.assertThrows(ItemIsNotAvailableException.class, () ->
                 bookingService.approve(1L, false, 1L));
@@ -625,7 +699,7 @@ class BookingServiceTest {
     @Test
     void shouldThrowException_whenApprovingBookingWithInvalidUser() {
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.findItemIdById(1L)).thenReturn(Optional.of(1L));
 
         Assertions.assertThrows(IllegalViewAndUpdateException.class, () ->
                 bookingService.approve(1L, true, 2L));
@@ -681,9 +755,9 @@ class BookingServiceTest {
         itemRepository.save(item);
         bookingRepository.save(booking);
 
-        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(userExistenceCache.exists(booker.getId())).thenReturn(true);
         when(bookingRepository.findAllByBookerId(booker.getId(), PageRequest.of(0, 10, Sort.by("start").descending())))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toBookingDtoOut(booking)));
 
 
         List<BookingDtoOut> result = bookingService.getAllByBooker(0, 10, "ALL", booker.getId());
@@ -698,9 +772,9 @@ class BookingServiceTest {
         itemRepository.save(item);
         bookingRepository.save(booking);
 
-        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(userExistenceCache.exists(booker.getId())).thenReturn(true);
         when(bookingRepository.findAllByBookerIdAndStateCurrent(booker.getId(), PageRequest.of(0, 10, Sort.by("start").descending())))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toBookingDtoOut(booking)));
 
         List<BookingDtoOut> result = bookingService.getAllByBooker(0, 10, "CURRENT", booker.getId());
 
@@ -714,9 +788,9 @@ class BookingServiceTest {
         itemRepository.save(item);
         bookingRepository.save(booking);
 
-        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(userExistenceCache.exists(booker.getId())).thenReturn(true);
         when(bookingRepository.findAllByBookerIdAndStatePast(booker.getId(), PageRequest.of(0, 10, Sort.by("start").descending())))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toBookingDtoOut(booking)));
 
         List<BookingDtoOut> result = bookingService.getAllByBooker(0, 10, "PAST", booker.getId());
 
@@ -730,9 +804,9 @@ class BookingServiceTest {
         itemRepository.save(item);
         bookingRepository.save(booking);
 
-        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(userExistenceCache.exists(booker.getId())).thenReturn(true);
         when(bookingRepository.findAllByBookerIdAndStateFuture(booker.getId(), PageRequest.of(0, 10, Sort.by("start").descending())))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toBookingDtoOut(booking)));
 
         List<BookingDtoOut> result = bookingService.getAllByBooker(0, 10, "FUTURE", booker.getId());
 
@@ -746,9 +820,9 @@ class BookingServiceTest {
         itemRepository.save(item);
         bookingRepository.save(booking);
 
-        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(userExistenceCache.exists(booker.getId())).thenReturn(true);
         when(bookingRepository.findAllByBookerIdAndStatus(booker.getId(), BookingStatusEnum.WAITING, PageRequest.of(0, 10, Sort.by("start").descending())))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toBookingDtoOut(booking)));
 
         List<BookingDtoOut> result = bookingService.getAllByBooker(0, 10, "WAITING", booker.getId());
 
@@ -762,13 +836,101 @@ class BookingServiceTest {
         itemRepository.save(item);
         bookingRepository.save(booking);
 
-        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(userExistenceCache.exists(booker.getId())).thenReturn(true);
         when(bookingRepository.findAllByBookerIdAndStatus(booker.getId(), BookingStatusEnum.REJECTED, PageRequest.of(0, 10, Sort.by("start").descending())))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toBookingDtoOut(booking)));
 
         List<BookingDtoOut> result = bookingService.getAllByBooker(0, 10, "REJECTED", booker.getId());
 
         assertNotNull(result);
         assertEquals(1, result.size());
     }
+
+    @Test
+    void getAllByBookerAfter_seeksPastCursor() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2023, 8, 1, 12, 0), 7L);
+        when(userExistenceCache.exists(booker.getId())).thenReturn(true);
+        when(bookingRepository.findKeysetByBookerIdAndStatus(booker.getId(), BookingStatusEnum.WAITING,
+                cursor.getStart(), 7L, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start", "id"))))
+                .thenReturn(List.of(BookingMapper.toBookingDtoOut(booking)));
+
+        List<BookingDtoOut> result = bookingService.getAllByBookerAfter(cursor, 10, "WAITING", booker.getId());
+
+        assertEquals(List.of(BookingMapper.toBookingDtoOut(booking)), result);
+    }
+
+    @Test
+    void getAllByOwnerAfter_startsFromTop_whenCursorIsEmpty() {
+        KeysetCursor cursor = KeysetCursor.decode("");
+        when(userExistenceCache.exists(user.getId())).thenReturn(true);
+        when(bookingRepository.findKeysetByOwnerId(eq(user.getId()), eq(cursor.getStart()), eq(Long.MAX_VALUE),
+                any())).thenReturn(List.of(BookingMapper.toBookingDtoOut(booking)));
+
+        List<BookingDtoOut> result = bookingService.getAllByOwnerAfter(cursor, 10, "ALL", user.getId());
+
+        assertEquals(1, result.size());
+    }
+
+    @Test
+    void exportByBooker_whenUserExists_thenWritesThroughExporter() throws Exception {
+        when(userExistenceCache.exists(2L)).thenReturn(true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        BookingExport export = bookingService.exportByBooker(2L);
+        verify(bookingExporter, never()).writeByBooker(anyLong(), any());
+        export.writeTo(out);
+
+        verify(bookingExporter).writeByBooker(2L, out);
+    }
+
+    @Test
+    void exportByOwner_whenUserNotFound_thenThrowsBeforeStreaming() throws Exception {
+        when(userExistenceCache.exists(1L)).thenReturn(false);
+
+        Assertions.assertThrows(EntityNotFoundException.class, () -> bookingService.exportByOwner(1L));
+        verify(bookingExporter, never()).writeByOwner(anyLong(), any());
+    }
+
+    @Test
+    void saveAll_whenNoOverlap_thenSavesAllInOneCall() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingDtoIn> batch = List.of(
+                new BookingDtoIn(start, start.plusDays(1), 1L),
+                new BookingDtoIn(start.plusDays(1), start.plusDays(2), 1L));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
+        when(itemRepository.findAllById(Set.of(1L))).thenReturn(List.of(item));
+
+        List<BookingDtoOut> result = bookingService.saveAll(batch, 2L);
+
+        assertEquals(2, result.size());
+        verify(itemLockStripes).lockAllUntilCompletion(Set.of(1L));
+        verify(bookingRepository).saveAllAndFlush(anyList());
+        verify(bookingRepository, never()).saveAndFlush(any());
+        verify(bookingIntervalIndex, times(2)).register(any(Booking.class));
+    }
+
+    @Test
+    void saveAll_whenBookingsOverlapWithinBatch_thenNothingSaved() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingDtoIn> batch = List.of(
+                new BookingDtoIn(start.plusDays(1), start.plusDays(3), 1L),
+                new BookingDtoIn(start, start.plusDays(2), 1L));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
+        when(itemRepository.findAllById(Set.of(1L))).thenReturn(List.of(item));
+
+        Assertions.assertThrows(ItemIsNotAvailableException.class, () -> bookingService.saveAll(batch, 2L));
+        verify(bookingRepository, never()).saveAllAndFlush(anyList());
+        verify(bookingIntervalIndex, never()).register(any(Booking.class));
+    }
+
+    @Test
+    void saveAll_whenItemDoesNotExist_thenThrowsException() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingDtoIn> batch = List.of(new BookingDtoIn(start, start.plusDays(1), 2L));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
+        when(itemRepository.findAllById(Set.of(2L))).thenReturn(Collections.emptyList());
+
+        Assertions.assertThrows(EntityNotFoundException.class, () -> bookingService.saveAll(batch, 2L));
+        verify(bookingRepository, never()).saveAllAndFlush(anyList());
+    }
 }
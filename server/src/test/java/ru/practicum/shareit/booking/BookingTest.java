@@ -25,7 +25,7 @@ public class BookingTest {
         LocalDateTime end = start.plusDays(1);
         Item item = new Item();
         User user = new User();
-        Booking booking = new Booking(1L, start, end, item, user, BookingStatusEnum.APPROVED);
+        Booking booking = new Booking(1L, start, end, item, user, null, BookingStatusEnum.APPROVED, null, 0L);
 
         assertEquals(1L, booking.getId());
         assertEquals(start, booking.getStart());
@@ -60,8 +60,8 @@ public class BookingTest {
 
     @Test
     void testToString() {
-        Booking booking = new Booking(1L, LocalDateTime.now(), LocalDateTime.now().plusDays(1), null, null, BookingStatusEnum.APPROVED);
-        String expectedString = "Booking(id=1, start=" + booking.getStart() + ", end=" + booking.getEnd() + ", item=null, booker=null, status=APPROVED)";
+        Booking booking = new Booking(1L, LocalDateTime.now(), LocalDateTime.now().plusDays(1), null, null, null, BookingStatusEnum.APPROVED, null, 0L);
+        String expectedString = "Booking(id=1, start=" + booking.getStart() + ", end=" + booking.getEnd() + ", ownerId=null, status=APPROVED, phase=null, version=0)";
         assertEquals(expectedString, booking.toString());
     }
 }
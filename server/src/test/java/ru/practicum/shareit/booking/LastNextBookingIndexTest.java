@@ -0,0 +1,91 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dto.ApprovedBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.LastNextBookingIndex;
+import ru.practicum.shareit.enums.BookingStatusEnum;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static ru.practicum.shareit.TestEntities.newBooking;
+import static ru.practicum.shareit.TestEntities.newItem;
+
+@ExtendWith(MockitoExtension.class)
+class LastNextBookingIndexTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+    @InjectMocks
+    private LastNextBookingIndex index;
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private final User owner = new User(1L, "Owner", "owner@mail.ru");
+    private final User booker = new User(2L, "Booker", "booker@mail.ru");
+    private final Item item = newItem(1L, "item", "cool", true, owner, null);
+
+    @Test
+    void shouldReturnNothing_whenItemHasNoApprovedBookings() {
+        assertNull(index.getLast(1L));
+        assertNull(index.getNext(1L));
+    }
+
+    @Test
+    void shouldSplitBookingsIntoLastAndNext() {
+        index.register(booking(1L, now.minusDays(5), now.minusDays(4)));
+        index.register(booking(2L, now.minusDays(2), now.minusDays(1)));
+        index.register(booking(3L, now.plusDays(3), now.plusDays(4)));
+        index.register(booking(4L, now.plusDays(1), now.plusDays(2)));
+
+        assertEquals(2L, index.getLast(1L).getId());
+        assertEquals(4L, index.getNext(1L).getId());
+        assertEquals(2L, index.getLast(1L).getBookerId());
+    }
+
+    @Test
+    void shouldPromoteNextToLast_onceItStarts() {
+        index.register(booking(1L, now.minusDays(2), now.minusDays(1)));
+        index.register(booking(2L, now.plusNanos(1_000_000), now.plusDays(1)));
+
+        await(now.plusNanos(2_000_000));
+
+        assertEquals(2L, index.getLast(1L).getId());
+        assertNull(index.getNext(1L));
+    }
+
+    @Test
+    void shouldLoadLastAndUpcomingBookings_onWarmUp() {
+        when(bookingRepository.findLastByStatusPerItem(eq(BookingStatusEnum.APPROVED), any()))
+                .thenReturn(List.of(new ApprovedBooking(5L, 7L, now.minusDays(2), now.minusDays(1), 2L)));
+        when(bookingRepository.findByStatusStartingAfter(eq(BookingStatusEnum.APPROVED), any()))
+                .thenReturn(List.of(new ApprovedBooking(6L, 7L, now.plusDays(1), now.plusDays(2), 2L)));
+
+        index.warmUp();
+
+        assertEquals(5L, index.getLast(7L).getId());
+        assertEquals(6L, index.getNext(7L).getId());
+    }
+
+    private Booking booking(long id, LocalDateTime start, LocalDateTime end) {
+        return newBooking(id, start, end, item, booker, BookingStatusEnum.APPROVED);
+    }
+
+    private void await(LocalDateTime moment) {
+        while (LocalDateTime.now().isBefore(moment)) {
+            Thread.onSpinWait();
+        }
+    }
+}
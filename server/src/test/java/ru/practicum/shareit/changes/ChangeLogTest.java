@@ -0,0 +1,45 @@
+package ru.practicum.shareit.changes;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.changes.dto.ChangesDto;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeLogTest {
+
+    private final ChangeLog changeLog = new ChangeLog(4);
+
+    @Test
+    void shouldRequestReset_whenEpochIsUnknown() {
+        ChangesDto changes = changeLog.since("", 0);
+
+        assertTrue(changes.isReset());
+        assertEquals(0, changes.getVersion());
+    }
+
+    @Test
+    void shouldReturnTagsChangedSinceVersion() {
+        String epoch = changeLog.since("", 0).getEpoch();
+        changeLog.record(ChangeLog.ITEMS);
+        changeLog.record(ChangeLog.user(1L), ChangeLog.ITEMS);
+
+        ChangesDto changes = changeLog.since(epoch, 1);
+
+        assertFalse(changes.isReset());
+        assertEquals(3, changes.getVersion());
+        assertEquals(Set.of(ChangeLog.user(1L), ChangeLog.ITEMS), changes.getTags());
+    }
+
+    @Test
+    void shouldRequestReset_whenVersionFellOutOfWindow() {
+        String epoch = changeLog.since("", 0).getEpoch();
+        changeLog.record(ChangeLog.ITEMS, ChangeLog.REQUESTS, ChangeLog.ITEMS, ChangeLog.REQUESTS, ChangeLog.ITEMS);
+
+        assertTrue(changeLog.since(epoch, 0).isReset());
+        assertFalse(changeLog.since(epoch, 1).isReset());
+    }
+}
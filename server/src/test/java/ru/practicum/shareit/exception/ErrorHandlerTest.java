@@ -1,6 +1,8 @@
 package ru.practicum.shareit.exception;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import ru.practicum.shareit.booking.model.Booking;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -58,6 +60,15 @@ class ErrorHandlerTest {
         assertEquals("Not the owner", response.getError());
     }
 
+    @Test
+    void shouldReturnConflict_whenOptimisticLockingFailure() {
+        ObjectOptimisticLockingFailureException exception =
+                new ObjectOptimisticLockingFailureException(Booking.class, 1L);
+        ErrorResponse response = exceptionHandler.optimisticLockingFailureException(exception);
+
+        assertEquals("Данные были изменены параллельным запросом, повторите попытку.", response.getError());
+    }
+
     @Test
     void shouldReturnInternalServerError_whenThrowable() {
         Throwable exception = new Throwable("Unexpected error");
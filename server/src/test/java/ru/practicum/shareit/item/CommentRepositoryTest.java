@@ -4,9 +4,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.comment.dto.CommentCount;
+import ru.practicum.shareit.item.comment.dto.CommentDtoOut;
+import ru.practicum.shareit.item.comment.dto.ItemCommentView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
@@ -19,6 +24,7 @@ import java.util.List;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
+import static ru.practicum.shareit.TestEntities.newItem;
 
 @DataJpaTest
 class CommentRepositoryTest {
@@ -32,9 +38,10 @@ class CommentRepositoryTest {
 
 
     private final User user = new User(null, "user", "user@mail.ru");
-    private final Item item = new Item(null, "item", "cool", true, user, null);
+    private final Item item = newItem(null, "item", "cool", true, user, null);
     private final Comment comment = new Comment(null, "abc", item, user,
             LocalDateTime.of(2023, 7, 1, 12, 12, 12));
+    private final PageRequest firstPage = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "created", "id"));
 
     @BeforeEach
     void setUp() {
@@ -45,11 +52,47 @@ class CommentRepositoryTest {
 
     @Test
     @DirtiesContext
-    void findAllByItemId() {
-        List<Comment> comments = commentRepository.findAllByItemId(item.getId());
+    void findLatestByItemId() {
+        List<CommentDtoOut> comments = commentRepository.findLatestByItemId(item.getId(), firstPage);
 
         assertThat(comments.get(0).getId(), notNullValue());
         assertThat(comments.get(0).getText(), equalTo(comment.getText()));
+        assertThat(comments.get(0).getAuthorName(), equalTo(user.getName()));
         assertThat(comments.size(), equalTo(1));
     }
+
+    @Test
+    @DirtiesContext
+    void findKeysetByItemId_returnsOlderComments() {
+        Comment later = commentRepository.save(new Comment(null, "later", item, user,
+                LocalDateTime.of(2023, 8, 1, 12, 12, 12)));
+
+        List<CommentDtoOut> older = commentRepository.findKeysetByItemId(item.getId(), later.getCreated(),
+                later.getId(), firstPage);
+
+        assertThat(older.size(), equalTo(1));
+        assertThat(older.get(0).getId(), equalTo(comment.getId()));
+    }
+
+    @Test
+    @DirtiesContext
+    void findLatestByItemIdIn_limitsCommentsPerItem() {
+        Item another = itemRepository.save(newItem(null, "item2", "cool", true, user, null));
+        for (int i = 1; i <= 3; i++) {
+            commentRepository.save(new Comment(null, "comment " + i, item, user,
+                    LocalDateTime.of(2023, 8, i, 12, 12, 12)));
+        }
+        commentRepository.save(new Comment(null, "other", another, user, LocalDateTime.of(2023, 8, 1, 12, 12, 12)));
+
+        List<ItemCommentView> latest = commentRepository.findLatestByItemIdIn(List.of(item.getId(), another.getId()),
+                2);
+        List<CommentCount> counts = commentRepository.countByItemIdIn(List.of(item.getId(), another.getId()));
+
+        assertThat(latest.size(), equalTo(3));
+        assertThat(latest.get(0).getText(), equalTo("comment 3"));
+        assertThat(latest.get(1).getText(), equalTo("comment 2"));
+        assertThat(latest.get(2).getItemId(), equalTo(another.getId()));
+        assertThat(counts.stream().filter(count -> count.getItemId() == item.getId()).findFirst().orElseThrow()
+                .getCount(), equalTo(4L));
+    }
 }
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.DatabaseItemSearchEngine;
+
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class DatabaseItemSearchEngineTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+    @InjectMocks
+    private DatabaseItemSearchEngine searchEngine;
+
+    @Test
+    void shouldEscapeLikeWildcards() {
+        searchEngine.search("50%_!", 10, 5);
+
+        verify(itemRepository).search("50!%!_!!", PageRequest.of(2, 5));
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.InMemoryItemSearchEngine;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static ru.practicum.shareit.TestEntities.newItem;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryItemSearchEngineTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+    @InjectMocks
+    private InMemoryItemSearchEngine searchEngine;
+
+    private final User owner = new User(1L, "Owner", "owner@mail.ru");
+    private final Item drill = newItem(1L, "Дрель", "Аккумуляторная дрель", true, owner, null);
+    private final Item saw = newItem(2L, "Пила", "Ручная пила по дереву", true, owner, null);
+    private final Item hammer = newItem(3L, "Молоток", "Для дрели не подходит", false, owner, null);
+
+    @Test
+    void shouldFindSubstringInNameOrDescription_ignoringCase() {
+        when(itemRepository.findAll()).thenReturn(List.of(drill, saw, hammer));
+        when(itemRepository.findAllById(List.of(1L))).thenReturn(List.of(drill));
+        searchEngine.warmUp();
+
+        assertEquals(List.of(drill), searchEngine.search("ДРЕЛ", 0, 10));
+    }
+
+    @Test
+    void shouldReturnItemsOrderedById_withPagination() {
+        when(itemRepository.findAll()).thenReturn(List.of(saw, drill));
+        when(itemRepository.findAllById(List.of(2L))).thenReturn(List.of(saw));
+        searchEngine.warmUp();
+
+        assertEquals(List.of(saw), searchEngine.search("р", 1, 1));
+    }
+
+    @Test
+    void shouldReindexItem_whenItemIsUpdated() {
+        when(itemRepository.findAll()).thenReturn(List.of(saw));
+        searchEngine.warmUp();
+        Item renamed = newItem(2L, "Лобзик", "Электрический", true, owner, null);
+
+        searchEngine.index(renamed);
+
+        assertTrue(searchEngine.search("пила", 0, 10).isEmpty());
+        verify(itemRepository, never()).findAllById(anyIterable());
+    }
+
+    @Test
+    void shouldFindNewItem_afterIndexing() {
+        when(itemRepository.findAllById(List.of(1L))).thenReturn(List.of(drill));
+
+        searchEngine.index(drill);
+
+        assertEquals(List.of(drill), searchEngine.search("аккум", 0, 10));
+    }
+
+    @Test
+    void shouldTreatWildcardsLiterally() {
+        Item discount = newItem(4L, "Скидка 50%", "Только сегодня", true, owner, null);
+        when(itemRepository.findAll()).thenReturn(List.of(drill, discount));
+        when(itemRepository.findAllById(List.of(4L))).thenReturn(List.of(discount));
+        searchEngine.warmUp();
+
+        assertEquals(List.of(discount), searchEngine.search("0%", 0, 10));
+        assertTrue(searchEngine.search("д_ель", 0, 10).isEmpty());
+    }
+}
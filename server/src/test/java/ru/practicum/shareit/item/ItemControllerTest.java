@@ -12,6 +12,7 @@ import ru.practicum.shareit.item.controller.ItemController;
 import ru.practicum.shareit.item.dto.ItemDtoOut;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.UserDtoShort;
+import ru.practicum.shareit.utils.KeysetCursor;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -19,6 +20,7 @@ import java.util.List;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -145,4 +147,29 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.text", is(commentDtoOut.getText())))
                 .andExpect(jsonPath("$.authorName", is(commentDtoOut.getAuthorName())));
     }
+
+    @Test
+    void getComments_whenPageIsFull_returnsNextCursor() throws Exception {
+        final CommentDtoOut commentDtoOut = new CommentDtoOut(7L, "comment", "user",
+                LocalDateTime.of(2023, 7, 1, 12, 0));
+        when(itemService.getCommentsAfter(eq(1L), any(), eq(1))).thenReturn(List.of(commentDtoOut));
+
+        mvc.perform(get("/items/1/comments?size=1")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor",
+                        new KeysetCursor(commentDtoOut.getCreated(), commentDtoOut.getId()).encode()))
+                .andExpect(jsonPath("$[0].id", is(commentDtoOut.getId()), Long.class));
+    }
+
+    @Test
+    void getComments_whenSizeIsNotPositive_returnsBadRequest() throws Exception {
+        mvc.perform(get("/items/1/comments?size=0")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemService);
+    }
 }
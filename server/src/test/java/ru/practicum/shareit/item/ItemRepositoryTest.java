@@ -15,6 +15,7 @@ import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static ru.practicum.shareit.TestEntities.newItem;
 
 @DataJpaTest
 class ItemRepositoryTest {
@@ -25,7 +26,7 @@ class ItemRepositoryTest {
     private UserRepository userRepository;
 
     private final User user = new User(null, "user", "user@mail.ru");
-    private final Item item = new Item(null, "item", "cool", true, user, null);
+    private final Item item = newItem(null, "item", "cool", true, user, null);
 
     @BeforeEach
     void setUp() {
@@ -42,4 +43,12 @@ class ItemRepositoryTest {
         assertThat(items.get(0).getName(), equalTo(item.getName()));
         assertThat(items.size(), equalTo(1));
     }
+
+    @Test
+    @DirtiesContext
+    void search_whenWildcardIsEscaped_matchesItLiterally() {
+        List<Item> items = itemRepository.search("!%", Pageable.ofSize(10));
+
+        assertThat(items.size(), equalTo(0));
+    }
 }
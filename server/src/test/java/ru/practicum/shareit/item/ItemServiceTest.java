@@ -10,6 +10,8 @@ import org.springframework.dao.DataIntegrityViolationException;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.LastNextBookingIndex;
+import ru.practicum.shareit.changes.ChangeLog;
 import ru.practicum.shareit.enums.BookingStatusEnum;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.NotBookerException;
@@ -17,19 +19,24 @@ import ru.practicum.shareit.exception.NotOwnerException;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.CommentRepository;
 import ru.practicum.shareit.item.comment.dto.CommentDtoIn;
+import ru.practicum.shareit.item.comment.dto.CommentCount;
 import ru.practicum.shareit.item.comment.dto.CommentDtoOut;
+import ru.practicum.shareit.item.comment.dto.ItemCommentView;
 import ru.practicum.shareit.item.comment.mapper.CommentMapper;
 import ru.practicum.shareit.item.dto.ItemDtoIn;
 import ru.practicum.shareit.item.dto.ItemDtoOut;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemSearchEngine;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.dto.UserDtoShort;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
+import ru.practicum.shareit.utils.KeysetCursor;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -38,6 +45,8 @@ import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static ru.practicum.shareit.TestEntities.newBooking;
+import static ru.practicum.shareit.TestEntities.newItem;
 
 @ExtendWith(MockitoExtension.class)
 class ItemServiceTest {
@@ -47,11 +56,19 @@ class ItemServiceTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private UserExistenceCache userExistenceCache;
+    @Mock
     private BookingRepository bookingRepository;
     @Mock
+    private LastNextBookingIndex lastNextBookingIndex;
+    @Mock
     private CommentRepository commentRepository;
     @Mock
     private ItemRequestRepository requestRepository;
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @Mock
+    private ChangeLog changeLog;
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -62,13 +79,13 @@ class ItemServiceTest {
     private final ItemDtoIn itemDtoIn = new ItemDtoIn("item", "cool item", true, null);
     private final ItemDtoOut itemDtoOut = new ItemDtoOut(id, "item", "cool item", true,
             new UserDtoShort(id, "User"));
-    private final Item item = new Item(id, "item", "cool item", true, user, null);
-    private final Item anotherItem = new Item(id, "item2", "cool item", true, user, null);
+    private final Item item = newItem(id, "item", "cool item", true, user, null);
+    private final Item anotherItem = newItem(id, "item2", "cool item", true, user, null);
     private final CommentDtoOut commentDto = new CommentDtoOut(id, "abc", "User",
             LocalDateTime.of(2023, 7, 1, 12, 12, 12));
     private final Comment comment = new Comment(id, "abc", item, user,
             LocalDateTime.of(2023, 7, 1, 12, 12, 12));
-    private final Booking booking = new Booking(id, null, null, item, user, BookingStatusEnum.WAITING);
+    private final Booking booking = newBooking(id, null, null, item, user, BookingStatusEnum.WAITING);
     private final ItemRequest itemRequest = new ItemRequest();
 
     @Test
@@ -80,6 +97,7 @@ class ItemServiceTest {
 
         Assertions.assertEquals(ItemMapper.toDto(item), actualItemDto);
         Assertions.assertNull(item.getRequest());
+        verify(itemSearchEngine).index(item);
     }
 
     @Test
@@ -117,16 +135,15 @@ class ItemServiceTest {
 
     @Test
     void shouldReturnItem_whenItemExists() {
-        when(bookingRepository.findFirstByItemIdAndStartLessThanEqualAndStatus(anyLong(), any(), any(), any()))
-                .thenReturn(Optional.of(booking));
-        when(bookingRepository.findFirstByItemIdAndStartAfterAndStatus(anyLong(), any(), any(), any()))
-                .thenReturn(Optional.of(booking));
-        when(commentRepository.findAllByItemId(id)).thenReturn(List.of(comment));
+        when(lastNextBookingIndex.getLast(id)).thenReturn(BookingMapper.toBookingDtoShort(booking));
+        when(lastNextBookingIndex.getNext(id)).thenReturn(BookingMapper.toBookingDtoShort(booking));
+        when(commentRepository.findLatestByItemId(eq(id), any())).thenReturn(List.of(CommentMapper.toCommentDtoOut(comment)));
         when(itemRepository.findById(id)).thenReturn(Optional.of(item));
         final ItemDtoOut itemDto = ItemMapper.toDto(item);
         itemDto.setLastBooking(BookingMapper.toBookingDtoShort(booking));
         itemDto.setNextBooking(BookingMapper.toBookingDtoShort(booking));
         itemDto.setComments(List.of(CommentMapper.toCommentDtoOut(comment)));
+        itemDto.setCommentsCount(1);
 
         ItemDtoOut actualItemDto = itemService.getItemById(id, id);
 
@@ -142,7 +159,7 @@ class ItemServiceTest {
 
     @Test
     void shouldReturnItems_whenOwnerRequestsWithPaging() {
-        when(userRepository.findById(id)).thenReturn(Optional.of(user));
+        when(userExistenceCache.exists(id)).thenReturn(true);
         when(itemRepository.findAllByOwnerId(anyLong(), any())).thenReturn(List.of(item));
 
         List<ItemDtoOut> targetItems = itemService.getItemsByOwner(0, 10, id);
@@ -155,14 +172,14 @@ class ItemServiceTest {
 
     @Test
     void shouldReturnItems_whenSearchTextIsProvided() {
-        when(itemRepository.search(any(), any())).thenReturn(List.of(item));
+        when(itemSearchEngine.search(any(), anyInt(), anyInt())).thenReturn(List.of(item));
 
         List<ItemDtoOut> targetItems = itemService.getItemBySearch(0, 10, "abc");
 
         Assertions.assertNotNull(targetItems);
         Assertions.assertEquals(1, targetItems.size());
-        verify(itemRepository, times(1))
-                .search(any(), any());
+        verify(itemSearchEngine, times(1))
+                .search(any(), anyInt(), anyInt());
     }
 
     @Test
@@ -171,7 +188,7 @@ class ItemServiceTest {
 
         Assertions.assertTrue(targetItems.isEmpty());
         Assertions.assertEquals(0, targetItems.size());
-        verify(itemRepository, never()).search(any(), any());
+        verify(itemSearchEngine, never()).search(any(), anyInt(), anyInt());
     }
 
     @Test
@@ -240,7 +257,7 @@ class ItemServiceTest {
 
     @Test
     void shouldReturnEmptyList_whenOwnerHasNoItems() {
-        when(userRepository.findById(id)).thenReturn(Optional.of(user));
+        when(userExistenceCache.exists(id)).thenReturn(true);
         when(itemRepository.findAllByOwnerId(anyLong(), any())).thenReturn(Collections.emptyList());
 
         List<ItemDtoOut> targetItems = itemService.getItemsByOwner(0, 10, id);
@@ -250,7 +267,7 @@ class ItemServiceTest {
 
     @Test
     void shouldReturnMultipleItems_whenSearchTextMatchesMultipleItems() {
-        when(itemRepository.search(any(), any())).thenReturn(List.of(item, anotherItem));
+        when(itemSearchEngine.search(any(), anyInt(), anyInt())).thenReturn(List.of(item, anotherItem));
 
         List<ItemDtoOut> targetItems = itemService.getItemBySearch(0, 10, "abc");
 
@@ -304,7 +321,7 @@ class ItemServiceTest {
     @Test
     void shouldReturnItemWithNoComments() {
         when(itemRepository.findById(id)).thenReturn(Optional.of(item));
-        when(commentRepository.findAllByItemId(id)).thenReturn(Collections.emptyList());
+        when(commentRepository.findLatestByItemId(eq(id), any())).thenReturn(Collections.emptyList());
 
         ItemDtoOut actualItemDto = itemService.getItemById(id, notOwnerId);
 
@@ -324,7 +341,7 @@ class ItemServiceTest {
 
     @Test
     void shouldReturnItemsFilteredByOwner() {
-        when(userRepository.findById(id)).thenReturn(Optional.of(user));
+        when(userExistenceCache.exists(id)).thenReturn(true);
         when(itemRepository.findAllByOwnerId(anyLong(), any())).thenReturn(List.of(item, anotherItem));
 
         List<ItemDtoOut> targetItems = itemService.getItemsByOwner(0, 10, id);
@@ -357,7 +374,7 @@ class ItemServiceTest {
 
     @Test
     void shouldReturnEmptyList_whenOwnerHasNoItemsWithPaging() {
-        when(userRepository.findById(id)).thenReturn(Optional.of(user));
+        when(userExistenceCache.exists(id)).thenReturn(true);
         when(itemRepository.findAllByOwnerId(anyLong(), any())).thenReturn(Collections.emptyList());
 
         List<ItemDtoOut> targetItems = itemService.getItemsByOwner(0, 10, id);
@@ -367,7 +384,7 @@ class ItemServiceTest {
 
     @Test
     void shouldReturnItems_whenSearchTextMatchesMultipleItemsWithDifferentCases() {
-        when(itemRepository.search(any(), any())).thenReturn(List.of(item, anotherItem));
+        when(itemSearchEngine.search(any(), anyInt(), anyInt())).thenReturn(List.of(item, anotherItem));
 
         List<ItemDtoOut> targetItems = itemService.getItemBySearch(0, 10, "ITEM");
 
@@ -409,11 +426,9 @@ class ItemServiceTest {
     @Test
     void shouldReturnItem_whenItemIsAvailable() {
         when(itemRepository.findById(id)).thenReturn(Optional.of(item));
-        when(bookingRepository.findFirstByItemIdAndStartLessThanEqualAndStatus(anyLong(), any(), any(), any()))
-                .thenReturn(Optional.of(booking));
-        when(bookingRepository.findFirstByItemIdAndStartAfterAndStatus(anyLong(), any(), any(), any()))
-                .thenReturn(Optional.of(booking));
-        when(commentRepository.findAllByItemId(id)).thenReturn(List.of(comment));
+        when(lastNextBookingIndex.getLast(id)).thenReturn(BookingMapper.toBookingDtoShort(booking));
+        when(lastNextBookingIndex.getNext(id)).thenReturn(BookingMapper.toBookingDtoShort(booking));
+        when(commentRepository.findLatestByItemId(eq(id), any())).thenReturn(List.of(CommentMapper.toCommentDtoOut(comment)));
 
         ItemDtoOut actualItemDto = itemService.getItemById(id, id);
 
@@ -423,11 +438,9 @@ class ItemServiceTest {
     @Test
     void shouldReturnItem_whenItemIsNotAvailable() {
         when(itemRepository.findById(id)).thenReturn(Optional.of(item));
-        when(bookingRepository.findFirstByItemIdAndStartLessThanEqualAndStatus(anyLong(), any(), any(), any()))
-                .thenReturn(Optional.of(booking));
-        when(bookingRepository.findFirstByItemIdAndStartAfterAndStatus(anyLong(), any(), any(), any()))
-                .thenReturn(Optional.of(booking));
-        when(commentRepository.findAllByItemId(id)).thenReturn(List.of(comment));
+        when(lastNextBookingIndex.getLast(id)).thenReturn(BookingMapper.toBookingDtoShort(booking));
+        when(lastNextBookingIndex.getNext(id)).thenReturn(BookingMapper.toBookingDtoShort(booking));
+        when(commentRepository.findLatestByItemId(eq(id), any())).thenReturn(List.of(CommentMapper.toCommentDtoOut(comment)));
 
         item.setAvailable(false);
 
@@ -452,7 +465,7 @@ class ItemServiceTest {
 
     @Test
     void shouldReturnItems_whenSearchTextMatchesMultipleItemsWithDifferentCasesInsensitive() {
-        when(itemRepository.search(any(), any())).thenReturn(List.of(item, anotherItem));
+        when(itemSearchEngine.search(any(), anyInt(), anyInt())).thenReturn(List.of(item, anotherItem));
 
         List<ItemDtoOut> targetItems = itemService.getItemBySearch(0, 10, "ItEm");
 
@@ -477,4 +490,71 @@ class ItemServiceTest {
     }
 
 
+
+    @Test
+    void shouldCountAllComments_whenInlineCommentsAreTruncated() {
+        List<CommentDtoOut> latest = Collections.nCopies(10, commentDto);
+        when(itemRepository.findById(id)).thenReturn(Optional.of(item));
+        when(commentRepository.findLatestByItemId(eq(id), any())).thenReturn(latest);
+        when(commentRepository.countByItemId(id)).thenReturn(1500L);
+
+        ItemDtoOut actualItemDto = itemService.getItemById(id, notOwnerId);
+
+        Assertions.assertEquals(10, actualItemDto.getComments().size());
+        Assertions.assertEquals(1500L, actualItemDto.getCommentsCount());
+        Assertions.assertEquals(new KeysetCursor(commentDto.getCreated(), commentDto.getId()).encode(),
+                actualItemDto.getCommentsCursor());
+    }
+
+    @Test
+    void shouldReturnCommentsCursor_whenOwnerListTruncatesInlineComments() {
+        ItemCommentView view = mock(ItemCommentView.class);
+        when(view.getItemId()).thenReturn(id);
+        when(view.getId()).thenReturn(commentDto.getId());
+        when(view.getText()).thenReturn(commentDto.getText());
+        when(view.getAuthorName()).thenReturn(commentDto.getAuthorName());
+        when(view.getCreated()).thenReturn(commentDto.getCreated());
+        when(userExistenceCache.exists(id)).thenReturn(true);
+        when(itemRepository.findAllByOwnerId(anyLong(), any())).thenReturn(List.of(item));
+        when(commentRepository.findLatestByItemIdIn(List.of(id), 10)).thenReturn(Collections.nCopies(10, view));
+        when(commentRepository.countByItemIdIn(List.of(id))).thenReturn(List.of(new CommentCount(id, 25L)));
+
+        ItemDtoOut actualItemDto = itemService.getItemsByOwner(0, 10, id).get(0);
+
+        Assertions.assertEquals(25L, actualItemDto.getCommentsCount());
+        Assertions.assertEquals(new KeysetCursor(commentDto.getCreated(), commentDto.getId()).encode(),
+                actualItemDto.getCommentsCursor());
+    }
+
+    @Test
+    void shouldNotCountComments_whenAllFitInline() {
+        when(itemRepository.findById(id)).thenReturn(Optional.of(item));
+        when(commentRepository.findLatestByItemId(eq(id), any())).thenReturn(List.of(commentDto));
+
+        ItemDtoOut actualItemDto = itemService.getItemById(id, notOwnerId);
+
+        Assertions.assertEquals(1L, actualItemDto.getCommentsCount());
+        Assertions.assertNull(actualItemDto.getCommentsCursor());
+        verify(commentRepository, never()).countByItemId(anyLong());
+    }
+
+    @Test
+    void shouldReturnCommentPage_whenItemExists() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2023, 7, 2, 0, 0), 5L);
+        when(itemRepository.findById(id)).thenReturn(Optional.of(item));
+        when(commentRepository.findKeysetByItemId(eq(id), eq(cursor.getStart()), eq(5L), any()))
+                .thenReturn(List.of(commentDto));
+
+        List<CommentDtoOut> comments = itemService.getCommentsAfter(id, cursor, 10);
+
+        Assertions.assertEquals(List.of(commentDto), comments);
+    }
+
+    @Test
+    void shouldNotReturnComments_whenItemDoesNotExist() {
+        when(itemRepository.findById(id)).thenReturn(Optional.empty());
+
+        Assertions.assertThrows(EntityNotFoundException.class, () ->
+                itemService.getCommentsAfter(id, KeysetCursor.decode(null), 10));
+    }
 }
@@ -22,6 +22,8 @@ import java.util.List;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.springframework.data.domain.Sort.Direction.DESC;
+import static ru.practicum.shareit.TestEntities.newBooking;
+import static ru.practicum.shareit.TestEntities.newItem;
 
 @DataJpaTest
 class ItemRequestRepositoryTest {
@@ -37,8 +39,8 @@ class ItemRequestRepositoryTest {
 
     private final User user = new User(null, "user", "user@mail.ru");
     private final User requestor = new User(null, "user2", "user2@mail.ru");
-    private final Item item = new Item(null, "item", "cool", true, user, null);
-    private final Booking booking = new Booking(1L,
+    private final Item item = newItem(null, "item", "cool", true, user, null);
+    private final Booking booking = newBooking(1L,
             LocalDateTime.of(2023, 7, 1, 12, 12, 12),
             LocalDateTime.of(2023, 7, 30, 12, 12, 12),
             item, requestor, BookingStatusEnum.WAITING);
@@ -7,6 +7,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.changes.ChangeLog;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
@@ -16,6 +17,7 @@ import ru.practicum.shareit.request.dto.ItemRequestDtoOut;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -23,7 +25,11 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static ru.practicum.shareit.TestEntities.newItem;
 
 @ExtendWith(MockitoExtension.class)
 class ItemRequestServiceTest {
@@ -33,7 +39,11 @@ class ItemRequestServiceTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private UserExistenceCache userExistenceCache;
+    @Mock
     private ItemRepository itemRepository;
+    @Mock
+    private ChangeLog changeLog;
     @InjectMocks
     private ItemRequestService requestService;
 
@@ -41,8 +51,8 @@ class ItemRequestServiceTest {
     private final User user = new User(1L, "User", "user@mail.ru");
     private final ItemRequest request = new ItemRequest(1L, "description", requestor, LocalDateTime.now());
     private final ItemRequest requestSecond = new ItemRequest(2L, "2", user, LocalDateTime.now());
-    private final Item item = new Item(1L, "item", "cool", true, user, request);
-    private final Item itemSecond = new Item(2L, "i2", "2", true, requestor, requestSecond);
+    private final Item item = newItem(1L, "item", "cool", true, user, request);
+    private final Item itemSecond = newItem(2L, "i2", "2", true, requestor, requestSecond);
 
     @Test
     void shouldReturnSavedRequest_whenNewRequestIsCreated() {
@@ -57,9 +67,9 @@ class ItemRequestServiceTest {
 
     @Test
     void shouldReturnSavedRequests_whenRequestorIsFound() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(requestor));
+        when(userExistenceCache.exists(2L)).thenReturn(true);
         when(requestRepository.findAllByRequestorId(anyLong(), any())).thenReturn(List.of(request));
-        when(itemRepository.findAllByRequestId(1L)).thenReturn(List.of(item));
+        when(itemRepository.findAllByRequestIdIn(List.of(1L))).thenReturn(List.of(item));
         final ItemRequestDtoOut requestDtoOut = ItemRequestMapper.toItemRequestDtoOut(request);
         requestDtoOut.setItems(List.of(ItemMapper.toDto(item)));
 
@@ -68,9 +78,23 @@ class ItemRequestServiceTest {
         Assertions.assertEquals(List.of(requestDtoOut), actualRequests);
     }
 
+    @Test
+    void shouldLoadItemsForAllRequestsInOneQuery() {
+        when(userExistenceCache.exists(1L)).thenReturn(true);
+        when(requestRepository.findAllByRequestorIdIsNot(anyLong(), any())).thenReturn(List.of(request, requestSecond));
+        when(itemRepository.findAllByRequestIdIn(List.of(1L, 2L))).thenReturn(List.of(item, itemSecond));
+
+        List<ItemRequestDtoOut> actualRequests = requestService.getAllRequests(0, 10, 1L);
+
+        Assertions.assertEquals(List.of(ItemMapper.toDto(item)), actualRequests.get(0).getItems());
+        Assertions.assertEquals(List.of(ItemMapper.toDto(itemSecond)), actualRequests.get(1).getItems());
+        verify(itemRepository, times(1)).findAllByRequestIdIn(any());
+        verifyNoMoreInteractions(itemRepository);
+    }
+
     @Test
     void shouldThrowException_whenRequestorIsNotFound() {
-        when((userRepository).findById(3L)).thenReturn(Optional.empty());
+        when(userExistenceCache.exists(3L)).thenReturn(false);
 
         Assertions.assertThrows(EntityNotFoundException.class, () ->
                 requestService.getRequestsByRequestor(3L));
@@ -78,9 +102,9 @@ class ItemRequestServiceTest {
 
     @Test
     void shouldReturnRequestById_whenUser() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userExistenceCache.exists(1L)).thenReturn(true);
         when(requestRepository.findById(anyLong())).thenReturn(Optional.of(request));
-        when(itemRepository.findAllByRequestId(1L)).thenReturn(List.of(item));
+        when(itemRepository.findAllByRequestIdIn(List.of(1L))).thenReturn(List.of(item));
         final ItemRequestDtoOut requestDto = ItemRequestMapper.toItemRequestDtoOut(request);
         requestDto.setItems(List.of(ItemMapper.toDto(item)));
 
@@ -99,7 +123,7 @@ class ItemRequestServiceTest {
 
     @Test
     void shouldReturnEmptyList_whenNoRequestsFoundForRequestor() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(requestor));
+        when(userExistenceCache.exists(2L)).thenReturn(true);
         when(requestRepository.findAllByRequestorId(anyLong(), any())).thenReturn(Collections.emptyList());
 
         List<ItemRequestDtoOut> actualRequests = requestService.getRequestsByRequestor(2L);
@@ -109,7 +133,7 @@ class ItemRequestServiceTest {
 
     @Test
     void shouldThrowException_whenUserNotFoundOnGetAllRequests() {
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userExistenceCache.exists(1L)).thenReturn(false);
 
         Assertions.assertThrows(EntityNotFoundException.class, () ->
                 requestService.getAllRequests(0, 10, 1L));
@@ -117,7 +141,7 @@ class ItemRequestServiceTest {
 
     @Test
     void shouldThrowException_whenRequestNotFound() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userExistenceCache.exists(1L)).thenReturn(true);
         when(requestRepository.findById(1L)).thenReturn(Optional.empty());
 
         Assertions.assertThrows(EntityNotFoundException.class, () ->
@@ -127,7 +151,7 @@ class ItemRequestServiceTest {
     @Test
     void shouldReturnEmptyList_whenNoRequestsFoundInPagination() {
         long userId = 1L;
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userExistenceCache.exists(userId)).thenReturn(true);
         when(requestRepository.findAllByRequestorIdIsNot(eq(userId), any(Pageable.class))).thenReturn(Collections.emptyList());
 
         List<ItemRequestDtoOut> actualRequests = requestService.getAllRequests(0, 10, userId);
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserExistenceCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    void shouldAskRepositoryOnce_whenUserIsCheckedRepeatedly() {
+        UserExistenceCache cache = new UserExistenceCache(userRepository, 100, Duration.ofMinutes(1));
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        assertTrue(cache.exists(1L));
+        assertTrue(cache.exists(1L));
+
+        verify(userRepository, times(1)).existsById(1L);
+    }
+
+    @Test
+    void shouldForgetNegativeAnswer_whenUserIsEvicted() {
+        UserExistenceCache cache = new UserExistenceCache(userRepository, 100, Duration.ofMinutes(1));
+        when(userRepository.existsById(2L)).thenReturn(false, true);
+
+        assertFalse(cache.exists(2L));
+        cache.evict(2L);
+
+        assertTrue(cache.exists(2L));
+    }
+}
@@ -9,6 +9,7 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 
 @DataJpaTest
@@ -26,4 +27,13 @@ class UserRepositoryTest {
         userRepository.save(user);
         assertThat(user.getId(), notNullValue());
     }
+
+    @Test
+    @DirtiesContext
+    void existsByEmail() {
+        userRepository.save(user);
+
+        assertThat(userRepository.existsByEmail("user@mail.ru"), is(true));
+        assertThat(userRepository.existsByEmail("other@mail.ru"), is(false));
+    }
 }
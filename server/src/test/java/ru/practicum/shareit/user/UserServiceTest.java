@@ -7,12 +7,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.changes.ChangeLog;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.NotUniqueEmailException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
 import java.util.ArrayList;
@@ -27,6 +29,10 @@ class UserServiceTest {
 
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ChangeLog changeLog;
+    @Mock
+    private UserExistenceCache userExistenceCache;
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -107,6 +113,7 @@ class UserServiceTest {
         assertEquals(UserMapper.toUserDto(user), actualUser);
         verify(userRepository, times(1))
                 .findById(user.getId());
+        verify(changeLog).record(ChangeLog.user(id));
     }
 
     @Test
@@ -114,11 +121,12 @@ class UserServiceTest {
         userService.deleteUserById(1L);
         verify(userRepository, times(1))
                 .deleteById(1L);
+        verify(userExistenceCache).evict(1L);
     }
 
     @Test
     public void testValidateUniqueEmail_EmailExists() {
-        when(userRepository.findAll()).thenReturn(List.of(new User(id, "Some User", "user@mail.ru")));
+        when(userRepository.existsByEmail("user@mail.ru")).thenReturn(true);
 
         NotUniqueEmailException thrown = assertThrows(NotUniqueEmailException.class, () -> {
             userService.saveNewUser(userDto);
@@ -130,7 +138,7 @@ class UserServiceTest {
     @Test
     public void testValidateUniqueEmail_EmailDoesNotExist() {
         UserDto uniqueUserDto = new UserDto(id, "Unique User", "unique@example.com");
-        when(userRepository.findAll()).thenReturn(new ArrayList<>());
+        when(userRepository.existsByEmail("unique@example.com")).thenReturn(false);
         when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
             User user = invocation.getArgument(0);
             user.setId(1L);
@@ -179,9 +187,10 @@ class UserServiceTest {
     void updateUser_whenUserEmailIsNotUnique_thenThrowsNotUniqueEmailException() {
         UserDto userDtoWithDuplicateEmail = new UserDto(id, "New Name", "duplicate@example.com");
         when(userRepository.findById(id)).thenReturn(Optional.of(user));
-        when(userRepository.findAll()).thenReturn(List.of(new User(id, "Existing User", "duplicate@example.com")));
+        when(userRepository.existsByEmail("duplicate@example.com")).thenReturn(true);
 
         assertThrows(NotUniqueEmailException.class, () -> userService.updateUser(id, userDtoWithDuplicateEmail));
+        verify(userRepository, never()).findAll();
     }
 
     @Test